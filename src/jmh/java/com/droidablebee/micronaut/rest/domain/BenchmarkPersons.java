@@ -0,0 +1,38 @@
+package com.droidablebee.micronaut.rest.domain;
+
+import java.util.Date;
+
+/**
+ * Persons created by the benchmarks.
+ */
+public final class BenchmarkPersons {
+
+    private BenchmarkPersons() {
+    }
+
+    /**
+     * Returns new person with one address, names and address line unique to i.
+     */
+    public static Person createPerson(int i) {
+
+        Person person = new Person("first" + i, "last" + i);
+        person.addAddress(new Address("line" + i, "city", "state", "zip"));
+
+        return person;
+    }
+
+    /**
+     * Returns person with id and every property set, including two addresses.
+     */
+    public static Person createCompletePerson() {
+
+        Person person = new Person(1L, "Jack", "Bauer");
+        person.setMiddleName("Middle");
+        person.setDateOfBirth(new Date());
+        person.setGender(Person.Gender.M);
+        person.addAddress(new Address("line1", "city", "state", "zip"));
+        person.addAddress(new Address("line2", "city", "state", "zip"));
+
+        return person;
+    }
+}
@@ -0,0 +1,125 @@
+package com.droidablebee.micronaut.rest.domain;
+
+import com.droidablebee.micronaut.rest.codec.CborMediaTypeCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import io.micronaut.context.ApplicationContext;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Json, xml and cbor (de)serialization of a person with addresses.
+ * Json and cbor use the object mappers configured by the application.
+ * Payload sizes of the formats are reported as secondary results of the serialization benchmarks.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PersonSerializationBenchmark {
+
+    ApplicationContext context;
+    ObjectMapper objectMapper;
+    XmlMapper xmlMapper;
+    ObjectMapper cborMapper;
+
+    Person person;
+    byte[] json;
+    byte[] xml;
+    byte[] cbor;
+
+    @Setup
+    public void setup() throws Exception {
+
+        context = ApplicationContext.run();
+        objectMapper = context.getBean(ObjectMapper.class);
+        xmlMapper = new XmlMapper();
+        cborMapper = context.getBean(CborMediaTypeCodec.class).getObjectMapper();
+
+        person = BenchmarkPersons.createCompletePerson();
+        json = objectMapper.writeValueAsBytes(person);
+        xml = xmlMapper.writeValueAsBytes(person);
+        cbor = cborMapper.writeValueAsBytes(person);
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] serializeJson(PayloadSize size) throws Exception {
+
+        return objectMapper.writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public Person deserializeJson() throws Exception {
+
+        return objectMapper.readValue(json, Person.class);
+    }
+
+    @Benchmark
+    public byte[] serializeXml(PayloadSize size) throws Exception {
+
+        return xmlMapper.writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public Person deserializeXml() throws Exception {
+
+        return xmlMapper.readValue(xml, Person.class);
+    }
+
+    @Benchmark
+    public byte[] serializeCbor(PayloadSize size) throws Exception {
+
+        return cborMapper.writeValueAsBytes(person);
+    }
+
+    @Benchmark
+    public Person deserializeCbor() throws Exception {
+
+        return cborMapper.readValue(cbor, Person.class);
+    }
+
+    /**
+     * Payload bytes of every format. JMH sums events over threads and iterations,
+     * so the sizes are recorded once, by the first thread at the end of the first measurement iteration.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class PayloadSize {
+
+        public long jsonBytes;
+        public long xmlBytes;
+        public long cborBytes;
+
+        private boolean recorded;
+
+        @TearDown(Level.Iteration)
+        public void record(PersonSerializationBenchmark benchmark, IterationParams iteration, ThreadParams thread) {
+
+            if (recorded || iteration.getType() != IterationType.MEASUREMENT || thread.getThreadIndex() != 0) {
+                return;
+            }
+            jsonBytes = benchmark.json.length;
+            xmlBytes = benchmark.xml.length;
+            cborBytes = benchmark.cbor.length;
+            recorded = true;
+        }
+    }
+}
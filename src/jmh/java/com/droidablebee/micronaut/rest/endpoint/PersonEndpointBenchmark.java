@@ -0,0 +1,118 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.service.PersonService;
+import com.droidablebee.micronaut.rest.service.PersonServiceBenchmark;
+import io.micronaut.cache.CacheManager;
+import io.micronaut.cache.SyncCache;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.client.BlockingHttpClient;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.generator.TokenGenerator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.droidablebee.micronaut.rest.domain.BenchmarkPersons.createPerson;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_READ_PERMISSION;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_WRITE_PERMISSION;
+
+/**
+ * Person endpoint requests handled by the embedded server, including security, routing and serialization.
+ * Uncached runs disable the hibernate caches and evict the person requested from the person and response caches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PersonEndpointBenchmark {
+
+    static final int PERSONS = 1000;
+
+    @Param({"true", "false"})
+    boolean cached;
+
+    EmbeddedServer server;
+    HttpClient httpClient;
+    BlockingHttpClient client;
+    String accessToken;
+    List<Long> ids;
+    SyncCache<?> personCache;
+    PersonResponseCache personResponseCache;
+
+    @Setup
+    public void setup() {
+
+        server = cached ?
+                ApplicationContext.run(EmbeddedServer.class) :
+                ApplicationContext.run(EmbeddedServer.class, PersonServiceBenchmark.UNCACHED);
+        ApplicationContext context = server.getApplicationContext();
+        personCache = context.getBean(CacheManager.class).getCache(PersonService.PERSON_CACHE);
+        personResponseCache = context.getBean(PersonResponseCache.class);
+
+        httpClient = context.createBean(HttpClient.class, server.getURL());
+        client = httpClient.toBlocking();
+
+        accessToken = context.getBean(TokenGenerator.class)
+                .generateToken(Authentication.build("benchmark", List.of(PERSON_READ_PERMISSION, PERSON_WRITE_PERMISSION)), 3600)
+                .orElseThrow();
+
+        List<Person> created = new ArrayList<>(PERSONS);
+        for (int i = 0; i < PERSONS; i++) {
+            created.add(createPerson(i));
+        }
+
+        ids = new ArrayList<>(PERSONS);
+        for (Person person : context.getBean(PersonService.class).saveAll(created)) {
+            ids.add(person.getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        httpClient.close();
+        server.close();
+    }
+
+    @Benchmark
+    public String get() {
+
+        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        if (!cached) {
+            personCache.invalidate(id);
+            personResponseCache.invalidate(id);
+        }
+        return client.retrieve(HttpRequest.GET(PERSON + "/" + id).bearerAuth(accessToken));
+    }
+
+    @Benchmark
+    public String getAll() {
+
+        int page = ThreadLocalRandom.current().nextInt(PERSONS / 20);
+        return client.retrieve(HttpRequest.GET(PERSON + "?size=20&page=" + page).bearerAuth(accessToken));
+    }
+
+    @Benchmark
+    public String add() {
+
+        return client.retrieve(HttpRequest.POST(PERSON, createPerson(ThreadLocalRandom.current().nextInt()))
+                .bearerAuth(accessToken)
+                .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()));
+    }
+}
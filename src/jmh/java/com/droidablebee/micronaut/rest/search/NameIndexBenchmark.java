@@ -0,0 +1,74 @@
+package com.droidablebee.micronaut.rest.search;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Name search over synthetic names made of random syllables, so the trigram frequencies resemble real names.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NameIndexBenchmark {
+
+    private static final String[] SYLLABLES = {
+            "an", "ba", "ber", "ca", "da", "el", "fa", "ga", "ha", "is", "jo", "ka", "la", "ma", "mi", "na", "ni",
+            "o", "pa", "ra", "ri", "sa", "son", "ta", "to", "va", "wa", "ya", "za", "er", "ley", "ton", "man"
+    };
+
+    @Param({"1000000"})
+    int persons;
+
+    @Param({"0.3"})
+    float minSimilarity;
+
+    NameIndex index;
+    String[] queries;
+
+    @Setup
+    public void setup() {
+
+        Random random = new Random(42);
+        index = new NameIndex();
+        for (int i = 0; i < persons; i++) {
+            index.put(i, name(random, 2), null, name(random, 3));
+        }
+
+        //names indexed with one letter changed, as misspelled by the caller
+        queries = new String[1000];
+        Random misspelled = new Random(42);
+        for (int i = 0; i < queries.length; i++) {
+            char[] name = (name(misspelled, 2) + " " + name(misspelled, 3)).toCharArray();
+            name[misspelled.nextInt(name.length)] = 'e';
+            queries[i] = new String(name);
+        }
+    }
+
+    @Benchmark
+    public List<NameMatch> search() {
+
+        return index.search(queries[ThreadLocalRandom.current().nextInt(queries.length)], 20, minSimilarity);
+    }
+
+    private static String name(Random random, int syllables) {
+
+        StringBuilder name = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        name.setCharAt(0, Character.toUpperCase(name.charAt(0)));
+
+        return name.toString();
+    }
+}
@@ -0,0 +1,62 @@
+package com.droidablebee.micronaut.rest.security;
+
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.generator.TokenGenerator;
+import io.micronaut.security.token.jwt.validator.JwtTokenValidator;
+import io.micronaut.security.token.validator.TokenValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_READ_PERMISSION;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_WRITE_PERMISSION;
+
+/**
+ * Security overhead of a request reusing the same bearer token: jwt parsing and signature verification on every
+ * request versus a cached authentication.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenValidatorBenchmark {
+
+    @Param({"false", "true"})
+    boolean cached;
+
+    ApplicationContext context;
+    TokenValidator validator;
+    String token;
+
+    @Setup
+    public void setup() {
+
+        context = ApplicationContext.run();
+        validator = cached ? context.getBean(CachingTokenValidator.class) : context.getBean(JwtTokenValidator.class);
+        token = context.getBean(TokenGenerator.class)
+                .generateToken(Authentication.build("benchmark", List.of(PERSON_READ_PERMISSION, PERSON_WRITE_PERMISSION)), 3600)
+                .orElseThrow();
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        context.close();
+    }
+
+    @Benchmark
+    public Authentication validateToken() {
+
+        return Mono.from(validator.validateToken(token, null)).block();
+    }
+}
@@ -0,0 +1,123 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.domain.PersonSummary;
+import io.micronaut.cache.CacheManager;
+import io.micronaut.cache.SyncCache;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static com.droidablebee.micronaut.rest.domain.BenchmarkPersons.createPerson;
+
+/**
+ * Person service against the embedded H2 datasource configured by the application.
+ * Uncached runs disable the hibernate second-level and query caches and evict the person looked up
+ * from the person cache, so every lookup reaches the database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PersonServiceBenchmark {
+
+    public static final Map<String, Object> UNCACHED = Map.of(
+            "jpa.default.properties.hibernate.cache.use_second_level_cache", false,
+            "jpa.default.properties.hibernate.cache.use_query_cache", false);
+
+    @Param({"1000"})
+    int persons;
+
+    @Param({"true", "false"})
+    boolean cached;
+
+    ApplicationContext context;
+    PersonService personService;
+    SyncCache<?> personCache;
+    List<Long> ids;
+
+    @Setup
+    public void setup() {
+
+        context = cached ? ApplicationContext.run() : ApplicationContext.run(UNCACHED);
+        personService = context.getBean(PersonService.class);
+        personCache = context.getBean(CacheManager.class).getCache(PersonService.PERSON_CACHE);
+
+        List<Person> created = new ArrayList<>(persons);
+        for (int i = 0; i < persons; i++) {
+            created.add(createPerson(i));
+        }
+
+        ids = new ArrayList<>(persons);
+        for (Person person : personService.saveAll(created)) {
+            ids.add(person.getId());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+
+        context.close();
+    }
+
+    @Benchmark
+    public Person findOne() {
+
+        Long id = ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+        if (!cached) {
+            personCache.invalidate(id);
+        }
+        return personService.findOne(id);
+    }
+
+    @Benchmark
+    public Page<Person> findAll() {
+
+        return personService.findAll(Pageable.from(ThreadLocalRandom.current().nextInt(persons / 20), 20));
+    }
+
+    @Benchmark
+    public PersonSummary findSummary() {
+
+        return personService.findSummary(ids.get(ThreadLocalRandom.current().nextInt(ids.size())));
+    }
+
+    @Benchmark
+    public Page<PersonSummary> findAllSummaries() {
+
+        return personService.findAllSummaries(Pageable.from(ThreadLocalRandom.current().nextInt(persons / 20), 20));
+    }
+
+    /**
+     * Last name prefix and address criteria, resolved by the person last name and address indexes.
+     */
+    @Benchmark
+    public Page<Person> search() {
+
+        PersonFilter filter = new PersonFilter();
+        filter.setLastName("last" + ThreadLocalRandom.current().nextInt(10));
+        filter.setZip("zip");
+
+        return personService.findAll(filter, Pageable.from(0, 20));
+    }
+
+    @Benchmark
+    public Person save() {
+
+        return personService.save(createPerson(ThreadLocalRandom.current().nextInt()));
+    }
+}
@@ -0,0 +1,118 @@
+package com.droidablebee.micronaut.rest.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency distributions of every operation, recorded in microseconds.
+ * <p>
+ * Latency is measured from the time the request was scheduled to be sent, not from the time it was actually sent.
+ * When the application (or the load generator) falls behind, requests waiting to be sent are counted as slow too,
+ * which corrects the coordinated omission of a closed-model client. Service time is measured from the actual send
+ * and is recorded separately, the gap between the two distributions shows how much time requests spent queued.
+ */
+class LatencyRecorder {
+
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> serviceTimes = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> errors = new EnumMap<>(Operation.class);
+
+    LatencyRecorder() {
+
+        for (Operation operation : Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            serviceTimes.put(operation, new ConcurrentHistogram(SIGNIFICANT_DIGITS));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    void record(Operation operation, long intendedNanos, long sentNanos, long completedNanos, boolean error) {
+
+        latencies.get(operation).recordValue((completedNanos - intendedNanos) / 1000);
+        serviceTimes.get(operation).recordValue((completedNanos - sentNanos) / 1000);
+        if (error) {
+            errors.get(operation).increment();
+        }
+    }
+
+    /**
+     * Returns summary of all the operations recorded, suitable for comparing runs.
+     */
+    Map<String, Object> summary(long durationSeconds) {
+
+        Histogram totalLatency = new Histogram(SIGNIFICANT_DIGITS);
+        Histogram totalServiceTime = new Histogram(SIGNIFICANT_DIGITS);
+        long totalErrors = 0;
+
+        Map<String, Object> operations = new LinkedHashMap<>();
+        for (Operation operation : Operation.values()) {
+            Histogram latency = latencies.get(operation);
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            totalLatency.add(latency);
+            totalServiceTime.add(serviceTimes.get(operation));
+            totalErrors += errors.get(operation).sum();
+
+            operations.put(operation.name(), summary(latency, serviceTimes.get(operation), errors.get(operation).sum(), durationSeconds));
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("total", summary(totalLatency, totalServiceTime, totalErrors, durationSeconds));
+        summary.put("operations", operations);
+
+        return summary;
+    }
+
+    /**
+     * Writes full percentile distribution of every operation recorded (in milliseconds) in the HdrHistogram format,
+     * the files can be plotted and compared with the HdrHistogram plotter.
+     */
+    void writeDistributions(File directory, String prefix) throws FileNotFoundException {
+
+        for (Operation operation : Operation.values()) {
+            Histogram latency = latencies.get(operation);
+            if (latency.getTotalCount() == 0) {
+                continue;
+            }
+            try (PrintStream out = new PrintStream(new File(directory, prefix + "-" + operation.name().toLowerCase() + ".hgrm"))) {
+                latency.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+    }
+
+    private static Map<String, Object> summary(Histogram latency, Histogram serviceTime, long errors, long durationSeconds) {
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("count", latency.getTotalCount());
+        summary.put("errors", errors);
+        summary.put("throughput", (double) latency.getTotalCount() / durationSeconds);
+        summary.put("latencyMicros", percentiles(latency));
+        summary.put("serviceTimeMicros", percentiles(serviceTime));
+
+        return summary;
+    }
+
+    private static Map<String, Object> percentiles(Histogram histogram) {
+
+        Map<String, Object> percentiles = new LinkedHashMap<>();
+        percentiles.put("mean", histogram.getMean());
+        percentiles.put("p50", histogram.getValueAtPercentile(50));
+        percentiles.put("p90", histogram.getValueAtPercentile(90));
+        percentiles.put("p99", histogram.getValueAtPercentile(99));
+        percentiles.put("p99.9", histogram.getValueAtPercentile(99.9));
+        percentiles.put("max", histogram.getMaxValue());
+
+        return percentiles;
+    }
+}
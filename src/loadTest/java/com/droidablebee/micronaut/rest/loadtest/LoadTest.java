@@ -0,0 +1,327 @@
+package com.droidablebee.micronaut.rest.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.micronaut.context.ApplicationContext;
+import io.micronaut.runtime.server.EmbeddedServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpRequest.BodyPublishers;
+import java.net.http.HttpResponse;
+import java.net.http.HttpResponse.BodyHandlers;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Open-model load test of the person endpoints.
+ * <p>
+ * Starts the application on a random localhost port with the in-memory datasource configured by application.yml,
+ * logs in via /login, creates persons and then sends requests of the mix at a fixed rate, regardless of how fast
+ * the application responds. Latency distributions are written as json summary and HdrHistogram percentile files
+ * to the report directory of the commit tested, one set of files per mix.
+ * <p>
+ * Configured by system properties (see build.gradle loadTest task), e.g.
+ * {@code ./gradlew loadTest -Dloadtest.mix=READ_HEAVY -Dloadtest.rate=500 -Dloadtest.duration=120}
+ */
+public class LoadTest {
+
+    static final String USERNAME = "loadtest";
+    static final String PASSWORD = "loadtest";
+
+    static final String PERSON = "/v1/person";
+    static final String PERSON_BATCH = "/v1/person/batch";
+    static final String PERSON_CURSOR = "/v1/person/cursor";
+    static final String PERSON_EXPORT = "/v1/person/export";
+    static final int PAGE_SIZE = 20;
+    static final int BATCH_SIZE = 1000;
+
+    private final Mix mix;
+    private final int rate;
+    private final int durationSeconds;
+    private final int warmupSeconds;
+    private final int persons;
+    private final int maxInFlight;
+    private final long seed;
+    private final File reportDirectory;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .executor(executor)
+            .build();
+
+    private URI uri;
+    private String accessToken;
+    private final List<Long> ids = new ArrayList<>();
+    private final AtomicReference<String> cursor = new AtomicReference<>();
+
+    LoadTest(Mix mix, int rate, int durationSeconds, int warmupSeconds, int persons, int maxInFlight, long seed, File reportDirectory) {
+        this.mix = mix;
+        this.rate = rate;
+        this.durationSeconds = durationSeconds;
+        this.warmupSeconds = warmupSeconds;
+        this.persons = persons;
+        this.maxInFlight = maxInFlight;
+        this.seed = seed;
+        this.reportDirectory = reportDirectory;
+    }
+
+    public static void main(String[] args) throws Exception {
+
+        String mixes = System.getProperty("loadtest.mix", "all");
+        int rate = Integer.getInteger("loadtest.rate", 200);
+        int duration = Integer.getInteger("loadtest.duration", 60);
+        int warmup = Integer.getInteger("loadtest.warmup", 10);
+        int persons = Integer.getInteger("loadtest.persons", 10000);
+        int maxInFlight = Integer.getInteger("loadtest.max-in-flight", 256);
+        long seed = Long.getLong("loadtest.seed", 42);
+        String commit = System.getProperty("loadtest.commit", "unknown");
+        File reportDirectory = new File(System.getProperty("loadtest.report-dir", "build/reports/loadtest"), commit);
+
+        List<Mix> selected = "all".equalsIgnoreCase(mixes) ?
+                Arrays.asList(Mix.values()) :
+                Arrays.stream(mixes.split(",")).map(String::trim).map(String::toUpperCase).map(Mix::valueOf).collect(Collectors.toList());
+
+        ObjectMapper objectMapper = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+        reportDirectory.mkdirs();
+        for (Mix mix : selected) {
+            Map<String, Object> report = new LoadTest(mix, rate, duration, warmup, persons, maxInFlight, seed, reportDirectory).run();
+            report.put("commit", commit);
+
+            File file = new File(reportDirectory, mix.name().toLowerCase() + ".json");
+            objectMapper.writeValue(file, report);
+            System.out.println("Load test " + mix + " report written to " + file);
+        }
+    }
+
+    /**
+     * Runs the mix against a freshly started application, so every mix starts with the same data.
+     */
+    Map<String, Object> run() throws Exception {
+
+        //the provider is registered directly, the packaged application does not contain any
+        try (ApplicationContext context = ApplicationContext.builder()
+                .properties(Map.of("micronaut.server.port", -1))
+                .singletons(new LoadTestAuthenticationProvider(USERNAME, PASSWORD))
+                .start()) {
+
+            EmbeddedServer server = context.getBean(EmbeddedServer.class).start();
+            uri = server.getURI();
+
+            accessToken = login();
+            createPersons();
+
+            LatencyRecorder recorder = generateLoad();
+            recorder.writeDistributions(reportDirectory, mix.name().toLowerCase());
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("mix", mix.name());
+            report.put("timestamp", Instant.now().toString());
+            report.put("rate", rate);
+            report.put("durationSeconds", durationSeconds);
+            report.put("warmupSeconds", warmupSeconds);
+            report.put("persons", persons);
+            report.put("maxInFlight", maxInFlight);
+            report.putAll(recorder.summary(durationSeconds));
+
+            return report;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    String login() throws IOException, InterruptedException {
+
+        ObjectNode credentials = objectMapper.createObjectNode()
+                .put("username", USERNAME)
+                .put("password", PASSWORD);
+
+        HttpResponse<String> response = client.send(request("/login")
+                .POST(BodyPublishers.ofString(credentials.toString()))
+                .header("Content-Type", "application/json")
+                .build(), BodyHandlers.ofString());
+        check(response);
+
+        return objectMapper.readTree(response.body()).get("access_token").asText();
+    }
+
+    void createPersons() throws IOException, InterruptedException {
+
+        for (int created = 0; created < persons; created += BATCH_SIZE) {
+            ArrayNode batch = objectMapper.createArrayNode();
+            for (int i = created; i < Math.min(persons, created + BATCH_SIZE); i++) {
+                batch.add(person(i));
+            }
+
+            HttpResponse<String> response = client.send(authorized(PERSON_BATCH)
+                    .POST(BodyPublishers.ofString(batch.toString()))
+                    .header("Content-Type", "application/json")
+                    .build(), BodyHandlers.ofString());
+            check(response);
+
+            for (JsonNode item : objectMapper.readTree(response.body()).get("items")) {
+                ids.add(item.get("id").asLong());
+            }
+        }
+    }
+
+    /**
+     * Sends requests at the fixed rate until the duration elapses. The schedule does not wait for responses,
+     * only the number of requests in flight is limited and a request delayed by the limit is still measured
+     * from the time it was scheduled.
+     */
+    LatencyRecorder generateLoad() throws InterruptedException {
+
+        LatencyRecorder recorder = new LatencyRecorder();
+        Semaphore inFlight = new Semaphore(maxInFlight);
+        Random random = new Random(seed);
+
+        long interval = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measured = start + TimeUnit.SECONDS.toNanos(warmupSeconds);
+        long end = measured + TimeUnit.SECONDS.toNanos(durationSeconds);
+
+        for (long intended = start; intended < end; intended += interval) {
+            long delay = intended - System.nanoTime();
+            if (delay > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            inFlight.acquire();
+
+            Operation operation = mix.next(random);
+            //requests sent during the warmup are not recorded
+            boolean record = intended >= measured;
+            long scheduled = intended;
+            long sent = System.nanoTime();
+
+            send(operation).whenComplete((response, e) -> {
+                inFlight.release();
+                if (record) {
+                    recorder.record(operation, scheduled, sent, System.nanoTime(), e != null || response.statusCode() >= 400);
+                }
+            });
+        }
+
+        //wait for the requests still in flight
+        inFlight.acquire(maxInFlight);
+
+        return recorder;
+    }
+
+    CompletableFuture<HttpResponse<String>> send(Operation operation) {
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pages = Math.max(1, ids.size() / PAGE_SIZE);
+        HttpRequest request;
+
+        switch (operation) {
+            case GET:
+                request = authorized(PERSON + "/" + randomId()).GET().build();
+                break;
+            case GET_PAGE:
+                request = authorized(PERSON + "?size=" + PAGE_SIZE + "&page=" + random.nextInt(Math.min(pages, 10))).GET().build();
+                break;
+            case GET_DEEP_PAGE:
+                request = authorized(PERSON + "?size=" + PAGE_SIZE + "&page=" + (pages / 2 + random.nextInt(pages - pages / 2))).GET().build();
+                break;
+            case GET_CURSOR:
+                String after = cursor.get();
+                request = authorized(PERSON_CURSOR + "?size=" + PAGE_SIZE + (after == null ? "" : "&after=" + after)).GET().build();
+                return client.sendAsync(request, BodyHandlers.ofString()).thenApply(response -> {
+                    nextCursor(after, response);
+                    return response;
+                });
+            case EXPORT:
+                request = authorized(PERSON_EXPORT).GET().build();
+                break;
+            case ADD:
+                request = authorized(PERSON)
+                        .POST(BodyPublishers.ofString(person(random.nextInt()).toString()))
+                        .header("Content-Type", "application/json")
+                        .build();
+                break;
+            case UPDATE:
+                request = authorized(PERSON + "/" + randomId())
+                        .PUT(BodyPublishers.ofString(person(random.nextInt()).toString()))
+                        .header("Content-Type", "application/json")
+                        .build();
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported operation " + operation);
+        }
+
+        return client.sendAsync(request, BodyHandlers.ofString());
+    }
+
+    /**
+     * Advances the shared cursor, starting from the beginning again once the last page is reached.
+     */
+    private void nextCursor(String after, HttpResponse<String> response) {
+
+        String next = null;
+        if (response.statusCode() == 200) {
+            try {
+                JsonNode node = objectMapper.readTree(response.body()).get("next");
+                next = node == null || node.isNull() ? null : node.asText();
+            } catch (IOException e) {
+                //restart from the beginning
+            }
+        }
+        cursor.compareAndSet(after, next);
+    }
+
+    private Long randomId() {
+
+        return ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+    }
+
+    private ObjectNode person(int i) {
+
+        return objectMapper.createObjectNode()
+                .put("firstName", "first" + i)
+                .put("lastName", "last" + i);
+    }
+
+    private HttpRequest.Builder request(String path) {
+
+        return HttpRequest.newBuilder(uri.resolve(path)).timeout(Duration.ofSeconds(60));
+    }
+
+    private HttpRequest.Builder authorized(String path) {
+
+        return request(path)
+                .header("Authorization", "Bearer " + accessToken)
+                .header("userId", USERNAME);
+    }
+
+    private static void check(HttpResponse<String> response) {
+
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException(response.request().uri() + " returned " + response.statusCode() + ": " + response.body());
+        }
+    }
+}
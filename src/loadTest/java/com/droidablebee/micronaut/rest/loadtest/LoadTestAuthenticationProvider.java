@@ -0,0 +1,42 @@
+package com.droidablebee.micronaut.rest.loadtest;
+
+import io.micronaut.http.HttpRequest;
+import io.micronaut.security.authentication.AuthenticationProvider;
+import io.micronaut.security.authentication.AuthenticationRequest;
+import io.micronaut.security.authentication.AuthenticationResponse;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+
+import java.util.List;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_READ_PERMISSION;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_WRITE_PERMISSION;
+
+/**
+ * Authenticates the single load test user with both read and write permissions.
+ * Registered with the application context started by the load test only.
+ */
+class LoadTestAuthenticationProvider implements AuthenticationProvider {
+
+    private final String username;
+    private final String password;
+
+    LoadTestAuthenticationProvider(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+
+    @Override
+    public Publisher<AuthenticationResponse> authenticate(HttpRequest<?> httpRequest, AuthenticationRequest<?, ?> authenticationRequest) {
+        return Flux.create(emitter -> {
+
+            if (username.equals(authenticationRequest.getIdentity()) && password.equals(authenticationRequest.getSecret())) {
+                emitter.next(AuthenticationResponse.success(username, List.of(PERSON_READ_PERMISSION, PERSON_WRITE_PERMISSION)));
+                emitter.complete();
+            } else {
+                emitter.error(AuthenticationResponse.exception());
+            }
+        }, FluxSink.OverflowStrategy.ERROR);
+    }
+}
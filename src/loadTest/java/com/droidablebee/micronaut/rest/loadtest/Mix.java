@@ -0,0 +1,41 @@
+package com.droidablebee.micronaut.rest.loadtest;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Random;
+
+import static com.droidablebee.micronaut.rest.loadtest.Operation.ADD;
+import static com.droidablebee.micronaut.rest.loadtest.Operation.EXPORT;
+import static com.droidablebee.micronaut.rest.loadtest.Operation.GET;
+import static com.droidablebee.micronaut.rest.loadtest.Operation.GET_CURSOR;
+import static com.droidablebee.micronaut.rest.loadtest.Operation.GET_DEEP_PAGE;
+import static com.droidablebee.micronaut.rest.loadtest.Operation.GET_PAGE;
+import static com.droidablebee.micronaut.rest.loadtest.Operation.UPDATE;
+
+/**
+ * Weighted mix of operations issued by the load test.
+ */
+enum Mix {
+
+    READ_HEAVY(Map.of(GET, 80, GET_PAGE, 10, ADD, 5, UPDATE, 5)),
+    WRITE_HEAVY(Map.of(GET, 30, ADD, 40, UPDATE, 30)),
+    DEEP_PAGING(Map.of(GET_PAGE, 20, GET_DEEP_PAGE, 40, GET_CURSOR, 40)),
+    //p99 of the fast reads while slow exports run alongside them, reported per operation
+    SLOW_QUERY(Map.of(GET, 89, GET_PAGE, 10, EXPORT, 1));
+
+    private final Operation[] operations;
+
+    Mix(Map<Operation, Integer> weights) {
+
+        //one slot per weight unit, picking a random slot picks an operation in proportion to its weight
+        operations = weights.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Operation[]::new);
+    }
+
+    Operation next(Random random) {
+
+        return operations[random.nextInt(operations.length)];
+    }
+}
@@ -0,0 +1,22 @@
+package com.droidablebee.micronaut.rest.loadtest;
+
+/**
+ * Requests issued by the load test.
+ */
+enum Operation {
+
+    /** GET /v1/person/{id} of a random person. */
+    GET,
+    /** GET /v1/person of one of the first pages. */
+    GET_PAGE,
+    /** GET /v1/person of one of the last pages, the database skips all the preceding rows. */
+    GET_DEEP_PAGE,
+    /** GET /v1/person/cursor continuing from the cursor returned by the previous request. */
+    GET_CURSOR,
+    /** GET /v1/person/export of all the persons, a deliberately slow request holding executor threads and connections. */
+    EXPORT,
+    /** POST /v1/person of a new person. */
+    ADD,
+    /** PUT /v1/person/{id} of a random person, regardless of its version. */
+    UPDATE
+}
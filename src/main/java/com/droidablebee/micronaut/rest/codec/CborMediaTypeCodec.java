@@ -0,0 +1,101 @@
+package com.droidablebee.micronaut.rest.codec;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.io.buffer.ByteBuffer;
+import io.micronaut.core.io.buffer.ByteBufferFactory;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.codec.CodecException;
+import io.micronaut.http.codec.MediaTypeCodec;
+import io.micronaut.jackson.JacksonConfiguration;
+import io.micronaut.jackson.ObjectMapperFactory;
+import jakarta.inject.Singleton;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reads and writes bodies as CBOR (RFC 8949), a binary encoding of the json data model.
+ * Uses an object mapper configured the same way as the json one, so persons, addresses and pages of persons
+ * have the same structure as in json while being smaller and cheaper to parse.
+ */
+@Singleton
+@Requires(classes = CBORFactory.class)
+public class CborMediaTypeCodec implements MediaTypeCodec {
+
+    public static final String APPLICATION_CBOR = "application/cbor";
+    public static final MediaType APPLICATION_CBOR_TYPE = new MediaType(APPLICATION_CBOR);
+
+    private final ObjectMapper objectMapper;
+
+    public CborMediaTypeCodec(ObjectMapperFactory objectMapperFactory, @Nullable JacksonConfiguration jacksonConfiguration) {
+        this.objectMapper = objectMapperFactory.objectMapper(jacksonConfiguration, new CBORFactory());
+    }
+
+    @Override
+    public Collection<MediaType> getMediaTypes() {
+        return List.of(APPLICATION_CBOR_TYPE);
+    }
+
+    @Override
+    public <T> T decode(Argument<T> type, InputStream inputStream) throws CodecException {
+
+        try {
+            return objectMapper.readValue(inputStream, javaType(type));
+        } catch (IOException e) {
+            throw new CodecException("Error decoding CBOR stream for type [" + type.getName() + "]: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> T decode(Argument<T> type, byte[] bytes) throws CodecException {
+
+        try {
+            return objectMapper.readValue(bytes, javaType(type));
+        } catch (IOException e) {
+            throw new CodecException("Error decoding CBOR bytes for type [" + type.getName() + "]: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> void encode(T object, OutputStream outputStream) throws CodecException {
+
+        try {
+            objectMapper.writeValue(outputStream, object);
+        } catch (IOException e) {
+            throw new CodecException("Error encoding object [" + object + "] to CBOR: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T> byte[] encode(T object) throws CodecException {
+
+        try {
+            return objectMapper.writeValueAsBytes(object);
+        } catch (IOException e) {
+            throw new CodecException("Error encoding object [" + object + "] to CBOR: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public <T, B> ByteBuffer<B> encode(T object, ByteBufferFactory<?, B> allocator) throws CodecException {
+
+        return allocator.copiedBuffer(encode(object));
+    }
+
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    private JavaType javaType(Argument<?> type) {
+
+        return JacksonConfiguration.constructType(type, objectMapper.getTypeFactory());
+    }
+}
@@ -0,0 +1,44 @@
+package com.droidablebee.micronaut.rest.compression;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.http.netty.channel.ChannelPipelineCustomizer;
+import jakarta.inject.Singleton;
+
+/**
+ * Adds compression metrics handlers around the compressor of every server connection.
+ * Compare http.server.response.size of the encoded and sent stages for the bandwidth saved and
+ * http.server.response.compression for the time spent in the compressor itself.
+ */
+@Singleton
+@Requires(beans = MeterRegistry.class)
+public class CompressionMetricsCustomizer implements BeanCreatedEventListener<ChannelPipelineCustomizer> {
+
+    private final MeterRegistry registry;
+
+    public CompressionMetricsCustomizer(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public ChannelPipelineCustomizer onCreated(BeanCreatedEvent<ChannelPipelineCustomizer> event) {
+
+        ChannelPipelineCustomizer customizer = event.getBean();
+        if (customizer.isServerChannel()) {
+            customizer.doOnConnect(pipeline -> {
+                if (pipeline.get(ChannelPipelineCustomizer.HANDLER_HTTP_COMPRESSOR) != null) {
+                    //outbound messages pass the handlers from the tail to the head of the pipeline
+                    pipeline.addAfter(ChannelPipelineCustomizer.HANDLER_HTTP_COMPRESSOR, "compression-metrics-encoded",
+                            new CompressionMetricsHandler(registry, false));
+                    pipeline.addBefore(ChannelPipelineCustomizer.HANDLER_HTTP_COMPRESSOR, "compression-metrics-sent",
+                            new CompressionMetricsHandler(registry, true));
+                }
+                return pipeline;
+            });
+        }
+
+        return customizer;
+    }
+}
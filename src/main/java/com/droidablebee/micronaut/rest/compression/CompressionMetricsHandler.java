@@ -0,0 +1,97 @@
+package com.droidablebee.micronaut.rest.compression;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.netty.buffer.ByteBufHolder;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.LastHttpContent;
+import io.netty.util.AttributeKey;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts bytes of the responses written on either side of the netty compressor. The handler before the compressor
+ * sees the bytes as encoded by the application, the one after sees the bytes sent along with the content encoding.
+ * <p>
+ * The compressor encodes every message synchronously, while the message is written through it, so the time spent
+ * compressing is the time the handler before the compressor spends writing, less the time the handler after it
+ * spends writing. It excludes the time the application takes to produce the messages of a streamed response.
+ */
+class CompressionMetricsHandler extends ChannelOutboundHandlerAdapter {
+
+    static final String RESPONSE_SIZE = "http.server.response.size";
+    static final String COMPRESSION = "http.server.response.compression";
+
+    private static final AttributeKey<String> ENCODING = AttributeKey.valueOf(CompressionMetricsHandler.class, "encoding");
+    private static final AttributeKey<Long> SENT_NANOS = AttributeKey.valueOf(CompressionMetricsHandler.class, "sentNanos");
+
+    private final MeterRegistry registry;
+    private final boolean compressed;
+
+    private long bytes;
+    private long nanos;
+
+    CompressionMetricsHandler(MeterRegistry registry, boolean compressed) {
+        this.registry = registry;
+        this.compressed = compressed;
+    }
+
+    @Override
+    public void write(ChannelHandlerContext ctx, Object msg, ChannelPromise promise) throws Exception {
+
+        if (msg instanceof HttpResponse) {
+            bytes = 0;
+            nanos = 0;
+            if (compressed) {
+                String contentEncoding = ((HttpResponse) msg).headers().get(HttpHeaderNames.CONTENT_ENCODING);
+                ctx.channel().attr(ENCODING).set(contentEncoding == null ? "identity" : contentEncoding);
+            }
+        }
+        if (msg instanceof ByteBufHolder) {
+            bytes += ((ByteBufHolder) msg).content().readableBytes();
+        }
+        boolean last = msg instanceof LastHttpContent;
+        if (last) {
+            record();
+        }
+
+        long started = System.nanoTime();
+        super.write(ctx, msg, promise);
+        nanos += System.nanoTime() - started;
+
+        if (compressed) {
+            ctx.channel().attr(SENT_NANOS).set(nanos);
+        } else if (last) {
+            recordCompression(ctx);
+        }
+    }
+
+    private void record() {
+
+        DistributionSummary.builder(RESPONSE_SIZE)
+                .baseUnit("bytes")
+                .tag("stage", compressed ? "sent" : "encoded")
+                .register(registry)
+                .record(bytes);
+    }
+
+    /**
+     * Records the time spent in the compressor, once the last message of the response has been written through it.
+     */
+    private void recordCompression(ChannelHandlerContext ctx) {
+
+        String encoding = ctx.channel().attr(ENCODING).getAndSet(null);
+        Long sentNanos = ctx.channel().attr(SENT_NANOS).getAndSet(null);
+        if (encoding != null && !"identity".equals(encoding)) {
+            Timer.builder(COMPRESSION)
+                    .tag("encoding", encoding)
+                    .register(registry)
+                    .record(Math.max(0, nanos - (sentNanos == null ? 0 : sentNanos)), TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.droidablebee.micronaut.rest.compression;
+
+import io.micronaut.context.annotation.Replaces;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.server.netty.HttpCompressionStrategy;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+import jakarta.inject.Singleton;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compresses responses of the content types configured that are at least as large as the threshold.
+ * Responses of unknown length (streamed) are compressed when the content type matches.
+ * <p>
+ * Compression is done by the netty compressor (gzip or deflate, whichever the client accepts) on buffers taken from
+ * the channel allocator, i.e. the pooled allocator configured by netty.default.allocator.
+ */
+@Singleton
+@Replaces(HttpCompressionStrategy.class)
+public class ContentTypeCompressionStrategy implements HttpCompressionStrategy {
+
+    private final boolean enabled;
+    private final int level;
+    private final int threshold;
+    private final List<String> contentTypes;
+
+    public ContentTypeCompressionStrategy(@Value("${person.compression.enabled:true}") boolean enabled,
+                                          @Value("${person.compression.level:6}") int level,
+                                          @Value("${person.compression.threshold:1024}") int threshold,
+                                          @Value("${person.compression.content-types:application/json,application/x-ndjson,application/xml,text/*}") List<String> contentTypes) {
+        this.enabled = enabled;
+        this.level = level;
+        this.threshold = threshold;
+        this.contentTypes = contentTypes;
+    }
+
+    @Override
+    public boolean shouldCompress(HttpResponse response) {
+
+        if (!enabled) {
+            return false;
+        }
+
+        String contentType = response.headers().get(HttpHeaderNames.CONTENT_TYPE);
+        if (contentType == null || !matches(contentType)) {
+            return false;
+        }
+
+        int contentLength = response.headers().getInt(HttpHeaderNames.CONTENT_LENGTH, -1);
+        return contentLength == -1 || contentLength >= threshold;
+    }
+
+    @Override
+    public int getCompressionLevel() {
+        return level;
+    }
+
+    /**
+     * Matches the content type, ignoring its parameters, against the types configured, which may be wildcards (text/*).
+     */
+    boolean matches(String contentType) {
+
+        int parameters = contentType.indexOf(';');
+        String type = (parameters == -1 ? contentType : contentType.substring(0, parameters)).trim().toLowerCase(Locale.ROOT);
+
+        for (String configured : contentTypes) {
+            if (configured.endsWith("/*") ? type.startsWith(configured.substring(0, configured.length() - 1)) : type.equals(configured)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
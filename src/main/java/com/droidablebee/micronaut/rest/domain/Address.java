@@ -1,17 +1,34 @@
 package com.droidablebee.micronaut.rest.domain;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+import javax.persistence.Cacheable;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.SequenceGenerator;
+import javax.persistence.Table;
 import javax.validation.constraints.NotNull;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "address", indexes = {
+		//join column of the person addresses, used by the address search subquery and the address fetch
+		@Index(name = "idx_address_person_id", columnList = "person_id"),
+		@Index(name = "idx_address_zip", columnList = "zip"),
+		@Index(name = "idx_address_city_state", columnList = "city, state"),
+		@Index(name = "idx_address_state", columnList = "state")
+})
 public class Address {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.AUTO)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_seq")
+	@SequenceGenerator(name = "address_seq", sequenceName = "address_seq", allocationSize = 50)
 	@Column(name = "address_id")
 	private Long id;
 
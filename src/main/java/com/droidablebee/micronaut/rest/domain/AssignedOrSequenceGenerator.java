@@ -0,0 +1,24 @@
+package com.droidablebee.micronaut.rest.domain;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import java.io.Serializable;
+
+/**
+ * Sequence generator keeping the id of a new person marked as assigned, i.e. reserved by the write-behind journal.
+ * Ids reserved come from the same sequence and optimizer, so they never collide with the generated ones.
+ * Any other id of a new person, such as one posted by a client, is replaced by a generated one.
+ */
+public class AssignedOrSequenceGenerator extends SequenceStyleGenerator {
+
+	@Override
+	public Serializable generate(SharedSessionContractImplementor session, Object object) {
+
+		if (object instanceof Person && ((Person) object).isIdAssigned() && ((Person) object).getId() != null) {
+			return ((Person) object).getId();
+		}
+
+		return super.generate(session, object);
+	}
+}
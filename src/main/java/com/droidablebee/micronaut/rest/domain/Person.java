@@ -1,13 +1,26 @@
 package com.droidablebee.micronaut.rest.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+
+import javax.persistence.Cacheable;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToMany;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+import javax.persistence.Version;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import java.util.Date;
@@ -15,10 +28,25 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "person", indexes = {
+        //supports keyset paging ordered by last name and id as well as the last name prefix search
+        @Index(name = "idx_person_last_name_id", columnList = "last_name, person_id"),
+        @Index(name = "idx_person_dob", columnList = "dob"),
+        @Index(name = "idx_person_gender_dob", columnList = "gender, dob")
+})
 public class Person {
 
     @Id
-    @GeneratedValue(strategy=GenerationType.AUTO)
+    //pooled sequence allows hibernate to assign ids without a round trip per insert and to batch the inserts,
+    //ids reserved up front by the write-behind journal are kept
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "person_seq")
+    @GenericGenerator(name = "person_seq", strategy = "com.droidablebee.micronaut.rest.domain.AssignedOrSequenceGenerator", parameters = {
+            @Parameter(name = SequenceStyleGenerator.SEQUENCE_PARAM, value = "person_seq"),
+            @Parameter(name = SequenceStyleGenerator.INCREMENT_PARAM, value = "50"),
+            @Parameter(name = SequenceStyleGenerator.OPT_PARAM, value = "pooled")
+    })
     @Column(name="person_id")
     private Long id;
 
@@ -39,11 +67,24 @@ public class Person {
     @Column(name="gender")
     private Gender gender;
     
+    //incremented on every update, concurrent updates of the same version are rejected. The default applies to the
+    //rows existing when the column is added by the schema update, a null version could not be incremented
+    @Version
+    @ColumnDefault("0")
+    @Column(name="version", nullable = false)
+    private Long version;
+
     @Valid
 	@OneToMany(cascade = CascadeType.ALL)
+	@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 	@JoinColumn(name = "person_id")
 	private Set<Address> addresses;
 
+    //set for ids reserved by the write-behind journal only, other ids of new persons are replaced by generated ones
+    @Transient
+    @JsonIgnore
+    private boolean idAssigned;
+
     protected Person() {}
 
     public Person(Long id, String firstName, String lastName) {
@@ -61,6 +102,25 @@ public class Person {
 		return id;
 	}
 
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	boolean isIdAssigned() {
+		return idAssigned;
+	}
+
+	/**
+	 * Keeps the id, reserved from the person sequence, when the new person is persisted.
+	 */
+	public void setIdAssigned(boolean idAssigned) {
+		this.idAssigned = idAssigned;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
 	public String getFirstName() {
 		return firstName;
 	}
@@ -0,0 +1,77 @@
+package com.droidablebee.micronaut.rest.domain;
+
+import io.micronaut.core.annotation.Introspected;
+
+import java.util.Date;
+
+/**
+ * Projection of the person columns without addresses. Read by a query selecting these columns only,
+ * so the result is not a managed entity and hibernate neither joins the addresses nor tracks changes.
+ */
+@Introspected
+public class PersonSummary {
+
+	private Long id;
+	private Long version;
+	private String firstName;
+	private String lastName;
+	private String middleName;
+	private Date dateOfBirth;
+	private Person.Gender gender;
+
+	public Long getId() {
+		return id;
+	}
+
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	public void setVersion(Long version) {
+		this.version = version;
+	}
+
+	public String getFirstName() {
+		return firstName;
+	}
+
+	public void setFirstName(String firstName) {
+		this.firstName = firstName;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+
+	public void setLastName(String lastName) {
+		this.lastName = lastName;
+	}
+
+	public String getMiddleName() {
+		return middleName;
+	}
+
+	public void setMiddleName(String middleName) {
+		this.middleName = middleName;
+	}
+
+	public Date getDateOfBirth() {
+		return dateOfBirth;
+	}
+
+	public void setDateOfBirth(Date dateOfBirth) {
+		this.dateOfBirth = dateOfBirth;
+	}
+
+	public Person.Gender getGender() {
+		return gender;
+	}
+
+	public void setGender(Person.Gender gender) {
+		this.gender = gender;
+	}
+}
@@ -0,0 +1,80 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.endpoint.error.Error;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of the bulk create/update request with the outcome of every item in the order received.
+ */
+public class BatchResult {
+
+    private final List<Item> items = new ArrayList<>();
+    private long elapsedMillis;
+
+    public List<Item> getItems() {
+        return items;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public long getSaved() {
+        return items.stream().filter(item -> item.getStatus() == Status.CREATED || item.getStatus() == Status.UPDATED).count();
+    }
+
+    public long getRejected() {
+        return items.size() - getSaved();
+    }
+
+    /**
+     * Saved persons per second measured over the whole request.
+     */
+    public double getRowsPerSecond() {
+        return elapsedMillis == 0 ? getSaved() * 1000d : getSaved() * 1000d / elapsedMillis;
+    }
+
+    void add(Item item) {
+        items.add(item);
+    }
+
+    public enum Status {
+        CREATED, UPDATED, INVALID, FAILED
+    }
+
+    static public class Item {
+        private final int index;
+        private final Long id;
+        private final Status status;
+        private final List<Error> errors;
+
+        public Item(int index, Long id, Status status, List<Error> errors) {
+            this.index = index;
+            this.id = id;
+            this.status = status;
+            this.errors = errors;
+        }
+
+        public int getIndex() {
+            return index;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public Status getStatus() {
+            return status;
+        }
+
+        public List<Error> getErrors() {
+            return errors;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.MediaType;
+
+/**
+ * Entity tags of persons based on the person version and the representation, e.g. {@code "7"} for json,
+ * {@code "7-cbor"} for cbor and {@code "7-f7"} for the fields selected (encoded as a mask) of version 7 in json.
+ * Every representation gets its own tag, so a cache never serves one in place of another.
+ */
+final class ETags {
+
+    static final String ANY = "*";
+
+    private static final String WEAK_PREFIX = "W/";
+    private static final char SEPARATOR = '-';
+
+    private ETags() {
+    }
+
+    /**
+     * Returns entity tag of the person in json.
+     */
+    static String of(Person person) {
+
+        return of(person.getVersion(), MediaType.APPLICATION_JSON_TYPE, null);
+    }
+
+    static String of(Person person, MediaType mediaType) {
+
+        return of(person.getVersion(), mediaType, null);
+    }
+
+    /**
+     * Returns entity tag of the person version in the media type, of the fields selected only if any.
+     */
+    static String of(Long version, MediaType mediaType, @Nullable PersonFields fields) {
+
+        StringBuilder etag = new StringBuilder().append('"').append(version);
+        if (fields != null) {
+            etag.append(SEPARATOR).append('f').append(fields.key());
+        }
+        if (!MediaType.APPLICATION_JSON_TYPE.equals(mediaType)) {
+            etag.append(SEPARATOR).append(mediaType.getSubtype());
+        }
+
+        return etag.append('"').toString();
+    }
+
+    /**
+     * Returns version of the entity tag, of any representation, or null for {@link #ANY}.
+     * @throws IllegalArgumentException if the entity tag is not a person version
+     */
+    static Long version(String etag) {
+
+        String value = etag.trim();
+        if (ANY.equals(value)) {
+            return null;
+        }
+        if (value.startsWith(WEAK_PREFIX)) {
+            value = value.substring(WEAK_PREFIX.length());
+        }
+        if (value.length() < 2 || value.charAt(0) != '"' || value.charAt(value.length() - 1) != '"') {
+            throw new IllegalArgumentException("Invalid entity tag: " + etag);
+        }
+        value = value.substring(1, value.length() - 1);
+        int separator = value.indexOf(SEPARATOR);
+
+        return Long.valueOf(separator < 0 ? value : value.substring(0, separator));
+    }
+
+    /**
+     * Checks value of If-None-Match header against the entity tag (weak comparison).
+     */
+    static boolean matches(String ifNoneMatch, String etag) {
+
+        if (ifNoneMatch == null) {
+            return false;
+        }
+
+        for (String value : ifNoneMatch.split(",")) {
+            value = value.trim();
+            if (value.equals(ANY) || value.equals(etag) || value.equals(WEAK_PREFIX + etag)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
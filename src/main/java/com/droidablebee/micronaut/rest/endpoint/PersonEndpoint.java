@@ -1,9 +1,31 @@
 package com.droidablebee.micronaut.rest.endpoint;
 
+import com.droidablebee.micronaut.rest.codec.CborMediaTypeCodec;
 import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.domain.PersonSummary;
+import com.droidablebee.micronaut.rest.endpoint.BatchResult.Item;
+import com.droidablebee.micronaut.rest.endpoint.BatchResult.Status;
+import com.droidablebee.micronaut.rest.endpoint.PersonResponseCache.CachedResponse;
+import com.droidablebee.micronaut.rest.endpoint.error.Error;
+import com.droidablebee.micronaut.rest.executor.PersonExecutorFactory;
+import com.droidablebee.micronaut.rest.service.CursorPage;
+import com.droidablebee.micronaut.rest.service.GroupCommitPersonService;
+import com.droidablebee.micronaut.rest.service.PersonCursor;
+import com.droidablebee.micronaut.rest.service.PersonFilter;
 import com.droidablebee.micronaut.rest.service.PersonService;
+import com.droidablebee.micronaut.rest.service.WriteBehindPersonService;
+import com.droidablebee.micronaut.rest.tracing.Traced;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.convert.format.Format;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.runtime.config.DataConfiguration.PageableConfiguration;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MediaType;
@@ -14,21 +36,57 @@ import io.micronaut.http.annotation.Header;
 import io.micronaut.http.annotation.PathVariable;
 import io.micronaut.http.annotation.Post;
 import io.micronaut.http.annotation.Put;
+import io.micronaut.http.annotation.QueryValue;
 import io.micronaut.security.annotation.Secured;
+import io.micronaut.scheduling.annotation.ExecuteOn;
 import io.micronaut.security.rules.SecurityRule;
 import io.micronaut.validation.Validated;
 import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Schedulers;
 
+import javax.persistence.OptimisticLockException;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.Enumeration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.stream.Collectors;
 
 @Controller
 @Secured(SecurityRule.IS_AUTHENTICATED)
+//all the methods are blocking (jdbc), run them on a bounded executor instead of the event loop
+@ExecuteOn(PersonExecutorFactory.PERSON)
 //@RequestMapping(produces = { MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_XML_VALUE })
 @Validated //required for @Valid on method parameters such as @RequestParam, @PathVariable, @RequestHeader
+@Traced
 public class PersonEndpoint /*extends BaseEndpoint*/ {
 
     static final String HEADER_TOKEN = "token";
     static final String HEADER_USER_ID = "userId";
+    static final String HEADER_PREFER = "Prefer";
+    static final String HEADER_PREFERENCE_APPLIED = "Preference-Applied";
+    static final String RESPOND_ASYNC = "respond-async";
 
     public static final String PERSON_READ_PERMISSION = "person-read";
     public static final String PERSON_WRITE_PERMISSION = "person-write";
@@ -36,18 +94,74 @@ public class PersonEndpoint /*extends BaseEndpoint*/ {
     static final String ID = "id";
     static final String PERSON = "/v1/person";
     static final String PERSON_BY_ID = "/v1/person/{" + ID + "}";
+    static final String PERSON_CURSOR = "/v1/person/cursor";
+    static final String PERSON_BATCH = "/v1/person/batch";
+    static final String PERSON_EXPORT = "/v1/person/export";
+
+    static final String APPLICATION_NDJSON = "application/x-ndjson";
+    static final String APPLICATION_CBOR = CborMediaTypeCodec.APPLICATION_CBOR;
+
+    static final String AFTER = "after";
+    static final String SIZE = "size";
+    static final String FIELDS = "fields";
+
+    static final String LAST_NAME = "lastName";
+    static final String DATE_OF_BIRTH_FROM = "dateOfBirthFrom";
+    static final String DATE_OF_BIRTH_TO = "dateOfBirthTo";
+    static final String GENDER = "gender";
+    static final String CITY = "city";
+    static final String STATE = "state";
+    static final String ZIP = "zip";
+    static final String DATE_FORMAT = "yyyy-MM-dd";
 
     @Inject
     PersonService personService;
 
+    @Inject
+    PersonResponseCache personResponseCache;
+
+    @Inject
+    ObjectMapper objectMapper;
+
+    @Inject
+    CborMediaTypeCodec cborMediaTypeCodec;
+
+    @Inject
+    Validator validator;
+
+    @Inject
+    BeanProvider<WriteBehindPersonService> writeBehindPersonService;
+
+    @Inject
+    BeanProvider<GroupCommitPersonService> groupCommitPersonService;
+
+    @Inject
+    @Named(PersonExecutorFactory.PERSON)
+    ExecutorService executorService;
+
+    @Value("${person.batch.chunk-size:500}")
+    int batchChunkSize;
+
+    @Value("${person.export.batch-size:500}")
+    int exportBatchSize;
+
     //todo: swagger
 
     @Secured(PERSON_READ_PERMISSION)
-    @Get(PERSON)
+    @Get(uri = PERSON, produces = {MediaType.APPLICATION_JSON, APPLICATION_CBOR})
 //	@Operation(
 //			summary = "Get all persons",
 //			description = "Returns first N persons specified by the size parameter with page offset specified by page parameter.")
-    public Page<Person> getAll(Pageable pageable) {
+    public HttpResponse<?> getAll(
+            Pageable pageable,
+            /*@Parameter(description = "Comma separated person fields to be returned, all by default")*/ @Nullable @QueryValue(FIELDS) String fields,
+            /*@Parameter(description = "Prefix of the last name")*/ @Nullable @QueryValue(LAST_NAME) String lastName,
+            /*@Parameter(description = "Earliest date of birth (yyyy-MM-dd), inclusive")*/ @Nullable @Format(DATE_FORMAT) @QueryValue(DATE_OF_BIRTH_FROM) LocalDate dateOfBirthFrom,
+            /*@Parameter(description = "Latest date of birth (yyyy-MM-dd), inclusive")*/ @Nullable @Format(DATE_FORMAT) @QueryValue(DATE_OF_BIRTH_TO) LocalDate dateOfBirthTo,
+            /*@Parameter(description = "Gender")*/ @Nullable @QueryValue(GENDER) Person.Gender gender,
+            /*@Parameter(description = "City of any address")*/ @Nullable @QueryValue(CITY) String city,
+            /*@Parameter(description = "State of the same address")*/ @Nullable @QueryValue(STATE) String state,
+            /*@Parameter(description = "Zip of the same address")*/ @Nullable @QueryValue(ZIP) String zip) {
 //    		/*@Parameter(description = "The size of the page to be returned")*/ @RequestAttribute Integer size,
 //    		/*@Parameter(description = "Zero-based page index")*/ @RequestAttribute Integer page) {
 
@@ -59,64 +173,461 @@ public class PersonEndpoint /*extends BaseEndpoint*/ {
 //		}
 //
 //		Pageable pageable = DefaultPageable.of(page, size);
-        Page<Person> persons = personService.findAll(pageable);
+        PersonFilter filter = new PersonFilter();
+        filter.setLastName(lastName);
+        filter.setDateOfBirthFrom(dateOfBirthFrom == null ? null : toDate(dateOfBirthFrom));
+        filter.setDateOfBirthBefore(dateOfBirthTo == null ? null : toDate(dateOfBirthTo.plusDays(1)));
+        filter.setGender(gender);
+        filter.setCity(city);
+        filter.setState(state);
+        filter.setZip(zip);
+
+        PersonFields selected;
+        try {
+            selected = fields == null ? null : PersonFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest();
+        }
+
+        if (!filter.isEmpty()) {
+            Page<Person> persons = personService.findAll(filter, pageable);
+            return HttpResponse.ok(selected == null ? persons : persons.map(selected::select))
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+
+        if (selected == null) {
+            return HttpResponse.ok(personService.findAll(pageable)).header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+
+        Page<Map<String, Object>> persons = selected.includesAddresses() ?
+                personService.findAll(pageable).map(selected::select) :
+                personService.findAllSummaries(pageable).map(selected::select);
+
+        return HttpResponse.ok(persons).header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    @Secured(PERSON_READ_PERMISSION)
+    @Get(PERSON_CURSOR)
+//	@Operation(
+//			summary = "Get all persons using keyset paging",
+//			description = "Returns N persons specified by the size parameter ordered by last name and id, starting after the position specified by the after token.")
+    public HttpResponse<CursorPage<Person>> getAllAfter(
+            /*@Parameter(description = "Opaque token of the last person of the previous page")*/ @Nullable @QueryValue(AFTER) String after,
+            /*@Parameter(description = "The size of the page to be returned")*/ @Nullable @QueryValue(SIZE) Integer size) {
 
-        return persons;
+        PersonCursor cursor;
+        try {
+            cursor = after == null ? null : PersonCursor.decode(after);
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest();
+        }
+
+        if (size == null || size < 1 || size > PageableConfiguration.DEFAULT_MAX_PAGE_SIZE) {
+            size = PageableConfiguration.DEFAULT_MAX_PAGE_SIZE;
+        }
+
+        return HttpResponse.ok(personService.findAll(cursor, size));
+    }
+
+    @Secured(PERSON_READ_PERMISSION)
+    @Get(uri = PERSON_EXPORT, produces = APPLICATION_NDJSON)
+//	@Operation(
+//			summary = "Export all persons",
+//			description = "Streams all persons as newline delimited json ordered by last name and id.")
+    public Publisher<byte[]> export() {
+
+        //every batch is read in its own transaction using keyset paging and only when requested by the subscriber,
+        //so neither a connection nor more than one batch of persons is held while the response is written
+        return Flux.<List<Person>, Optional<PersonCursor>>generate(Optional::empty, (after, sink) -> {
+                    CursorPage<Person> page = personService.findAll(after.orElse(null), exportBatchSize);
+                    List<Person> persons = page.getContent();
+                    if (!persons.isEmpty()) {
+                        sink.next(persons);
+                    }
+                    if (page.getNext() == null) {
+                        sink.complete();
+                        return after;
+                    }
+                    return Optional.of(PersonCursor.decode(page.getNext()));
+                })
+                .map(this::toNdjson)
+                .subscribeOn(Schedulers.fromExecutorService(executorService));
     }
 
     @Secured(PERSON_READ_PERMISSION)
-    @Get(PERSON_BY_ID)
+    @Get(uri = PERSON_BY_ID, produces = {MediaType.APPLICATION_JSON, APPLICATION_CBOR})
 //	@Operation(
 //			summary = "Get person by id",
 //			description = "Returns person for id specified.")
 //	@ApiResponses(value = {@ApiResponse(responseCode = "404", description = "Person not found") })
-    public HttpResponse<Person> get(/*@Parameter(description = "Person id")*/ @PathVariable(ID) Long id) {
+    public HttpResponse<?> get(
+            HttpRequest<?> request,
+            /*@Parameter(description = "Person id")*/ @PathVariable(ID) Long id,
+            /*@Parameter(description = "Comma separated person fields to be returned, all by default")*/ @Nullable @QueryValue(FIELDS) String fields,
+            @Nullable @Header(HttpHeaders.IF_NONE_MATCH) String ifNoneMatch) {
+
+        if (fields != null) {
+            return getFields(request, id, fields, ifNoneMatch);
+        }
+
+        if (acceptsCbor(request)) {
+            //only json is cached, cbor is encoded from the (cached) person
+            Person person = personService.findOne(id);
+            if (person == null) {
+                return HttpResponse.status(HttpStatus.NOT_FOUND);
+            }
+            String etag = ETags.of(person, CborMediaTypeCodec.APPLICATION_CBOR_TYPE);
+            if (ETags.matches(ifNoneMatch, etag)) {
+                return HttpResponse.notModified().header(HttpHeaders.ETAG, etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+            return HttpResponse.ok(person)
+                    .contentType(CborMediaTypeCodec.APPLICATION_CBOR_TYPE)
+                    .header(HttpHeaders.ETAG, etag)
+                    .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
+
+        //pre-serialized json is written as is, without building and serializing the person again
+        CachedResponse response = personResponseCache.get(id, () -> personService.findOne(id));
+        if (response == null) {
+            return HttpResponse.status(HttpStatus.NOT_FOUND);
+        }
+        if (response.matches(ifNoneMatch)) {
+            return HttpResponse.notModified().header(HttpHeaders.ETAG, response.getEtag()).header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        }
 
-        Person person = personService.findOne(id);
-        return (person == null ? HttpResponse.status(HttpStatus.NOT_FOUND) : HttpResponse.ok()).body(person);
+        return HttpResponse.ok(response.getBody())
+                .contentType(MediaType.APPLICATION_JSON_TYPE)
+                .header(HttpHeaders.ETAG, response.getEtag())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
     }
 
     @Secured(PERSON_WRITE_PERMISSION)
-    @Post(uri = PERSON, consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Post(uri = PERSON, consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, APPLICATION_CBOR},
+            produces = {MediaType.APPLICATION_JSON, APPLICATION_CBOR})
 //    @Operation(
 //            summary = "Create new or update existing person",
 //            description = "Creates new or updates existing person. Returns created/updated person with id.")
     public HttpResponse<Person> add(
+            HttpRequest<?> request,
             @Valid @Body Person person,
             /*@Valid @Size(max = 40, min = 8, message = "user id size 8-40")*/ @Header(name = HEADER_USER_ID) String userId,
+            /*@Valid @Size(max = 40, min = 2, message = "token size 2-40")*/ @Header(name = HEADER_TOKEN, defaultValue = "") String token,
+            /*@Parameter(description = "respond-async to acknowledge new person once journaled, before it is written to the database")*/ @Nullable @Header(HEADER_PREFER) String prefer) {
+
+        if (person.getId() == null && prefer != null && prefer.toLowerCase(Locale.ROOT).contains(RESPOND_ASYNC) && writeBehindPersonService.isPresent()) {
+            //readable once drained from the journal into the database
+            person = writeBehindPersonService.get().accept(person);
+            return HttpResponse.accepted().body(person).header(HEADER_PREFERENCE_APPLIED, RESPOND_ASYNC);
+        }
+
+        person = groupCommitPersonService.isPresent() ?
+                groupCommitPersonService.get().save(person) :
+                personService.save(person);
+        personResponseCache.invalidate(person.getId());
+        MediaType mediaType = representation(request);
+        return HttpResponse.ok(person)
+                .contentType(mediaType)
+                .header(HttpHeaders.ETAG, ETags.of(person, mediaType))
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    @Secured(PERSON_WRITE_PERMISSION)
+    @Post(uri = PERSON_BATCH, consumes = {MediaType.APPLICATION_JSON, APPLICATION_NDJSON}, produces = {MediaType.APPLICATION_JSON, APPLICATION_CBOR})
+//    @Operation(
+//            summary = "Create new or update existing persons in bulk",
+//            description = "Accepts json array or newline delimited json of persons. Valid persons are written in chunks, one transaction per chunk. Persons with id update existing persons (of the version provided, if any) and keep their addresses unless provided. Returns result of every person received.")
+    public HttpResponse<BatchResult> addAll(
+            @Body Publisher<byte[]> content,
+            /*@Valid @Size(max = 40, min = 8, message = "user id size 8-40")*/ @Header(name = HEADER_USER_ID) String userId,
+            /*@Valid @Size(max = 40, min = 2, message = "token size 2-40")*/ @Header(name = HEADER_TOKEN, defaultValue = "") String token) {
+
+        return HttpResponse.ok(saveAll(() -> objectMapper.readerFor(Person.class).readValues(toInputStream(content))));
+    }
+
+    @Secured(PERSON_WRITE_PERMISSION)
+    @Post(uri = PERSON_BATCH, consumes = APPLICATION_CBOR, produces = {MediaType.APPLICATION_JSON, APPLICATION_CBOR})
+//    @Operation(
+//            summary = "Create new or update existing persons in bulk",
+//            description = "Accepts cbor array or sequence of persons. Valid persons are written in chunks, one transaction per chunk. Returns result of every person received.")
+    public HttpResponse<BatchResult> addAllCbor(
+            @Body Publisher<byte[]> content,
+            /*@Valid @Size(max = 40, min = 8, message = "user id size 8-40")*/ @Header(name = HEADER_USER_ID) String userId,
             /*@Valid @Size(max = 40, min = 2, message = "token size 2-40")*/ @Header(name = HEADER_TOKEN, defaultValue = "") String token) {
 
-        person = personService.save(person);
-        return HttpResponse.ok().body(person);
+        return HttpResponse.ok(saveAll(() -> cborMediaTypeCodec.getObjectMapper().readerFor(Person.class).readValues(toInputStream(content))));
     }
 
     @Secured(PERSON_WRITE_PERMISSION)
-    @Put(uri = PERSON_BY_ID, consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    @Put(uri = PERSON_BY_ID, consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML, APPLICATION_CBOR},
+            produces = {MediaType.APPLICATION_JSON, APPLICATION_CBOR})
 //    @Operation(
 //            summary = "Update existing person",
-//            description = "Updates existing person. Returns updated person.")
+//            description = "Updates existing person if it still has the version specified by If-Match header (or by the version of the person provided). Addresses are kept unless provided, an empty list removes them. Returns updated person.")
     public HttpResponse<?> update(
+            HttpRequest<?> request,
             @PathVariable(ID) Long id,
             @Valid @Body Person person,
+            @Nullable @Header(HttpHeaders.IF_MATCH) String ifMatch,
             /*@Valid @Size(max = 40, min = 8, message = "user id size 8-40")*/ @Header(name = HEADER_USER_ID) String userId,
             /*@Valid @Size(max = 40, min = 2, message = "token size 2-40")*/ @Header(name = HEADER_TOKEN, defaultValue = "") String token) {
 
+        Long version;
+        try {
+            version = ifMatch == null ? person.getVersion() : ETags.version(ifMatch);
+        } catch (IllegalArgumentException e) {
+            //not an etag of any person version
+            return HttpResponse.status(HttpStatus.PRECONDITION_FAILED);
+        }
+
         HttpResponse<?> httpResponse;
 
-        Person found = personService.findOne(id);
-        if (found == null) {
-            httpResponse = HttpResponse.notFound();
+        try {
+            Person updated = groupCommitPersonService.isPresent() ?
+                    groupCommitPersonService.get().update(id, version, person) :
+                    personService.update(id, version, person);
+            if (updated == null) {
+                httpResponse = HttpResponse.notFound();
+            } else {
+                personResponseCache.invalidate(id);
+                MediaType mediaType = representation(request);
+                httpResponse = HttpResponse.ok(updated)
+                        .contentType(mediaType)
+                        .header(HttpHeaders.ETAG, ETags.of(updated, mediaType))
+                        .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+            }
+        } catch (OptimisticLockException e) {
+            httpResponse = HttpResponse.status(HttpStatus.PRECONDITION_FAILED);
+        }
+
+        return httpResponse;
+    }
+
+    /**
+     * Returns fields of the person requested. Neither the person nor the response is cached,
+     * without addresses only the person columns are read.
+     */
+    private HttpResponse<?> getFields(HttpRequest<?> request, Long id, String fields, String ifNoneMatch) {
+
+        PersonFields selected;
+        try {
+            selected = PersonFields.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return HttpResponse.badRequest();
+        }
+
+        Map<String, Object> body;
+        Long version;
+        if (selected.includesAddresses()) {
+            Person person = personService.findOne(id);
+            if (person == null) {
+                return HttpResponse.status(HttpStatus.NOT_FOUND);
+            }
+            body = selected.select(person);
+            version = person.getVersion();
         } else {
-            found.setFirstName(person.getFirstName());
-            found.setLastName(person.getLastName());
-            found.setMiddleName(person.getMiddleName());
-            found.setAddresses(person.getAddresses());
+            PersonSummary person = personService.findSummary(id);
+            if (person == null) {
+                return HttpResponse.status(HttpStatus.NOT_FOUND);
+            }
+            body = selected.select(person);
+            version = person.getVersion();
+        }
 
-            person = personService.update(found);
-            httpResponse = HttpResponse.ok().body(person);
+        MediaType mediaType = representation(request);
+        String etag = ETags.of(version, mediaType, selected);
+        if (ETags.matches(ifNoneMatch, etag)) {
+            return HttpResponse.notModified().header(HttpHeaders.ETAG, etag).header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
         }
 
-        return httpResponse;
+        return HttpResponse.ok(body)
+                .contentType(mediaType)
+                .header(HttpHeaders.ETAG, etag)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * Start of the day in UTC, the time zone dates of birth are written in.
+     */
+    private Date toDate(LocalDate date) {
+
+        return Date.from(date.atStartOfDay(ZoneOffset.UTC).toInstant());
+    }
+
+    private byte[] toNdjson(List<Person> persons) {
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try {
+            for (Person person : persons) {
+                objectMapper.writeValue(out, person);
+                out.write('\n');
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * Reads the body chunks as they arrive, only the chunks not read yet are buffered. The size of the whole body
+     * is still limited by micronaut.server.max-request-size.
+     */
+    private InputStream toInputStream(Publisher<byte[]> content) {
+
+        //blocks the executor thread, not the event loop, while waiting for the next chunk
+        Iterator<byte[]> chunks = Flux.from(content).toIterable().iterator();
+        return new SequenceInputStream(new Enumeration<InputStream>() {
+
+            @Override
+            public boolean hasMoreElements() {
+                return chunks.hasNext();
+            }
+
+            @Override
+            public InputStream nextElement() {
+                return new ByteArrayInputStream(chunks.next());
+            }
+        });
+    }
+
+    private List<Error> validate(Person person) {
+
+        List<Error> errors = new ArrayList<>();
+        for (ConstraintViolation<Person> violation : validator.validate(person)) {
+            errors.add(new Error(
+                    violation.getPropertyPath().toString(),
+                    String.valueOf(violation.getInvalidValue()),
+                    violation.getMessage()
+            ));
+        }
+
+        return errors;
+    }
+
+    /**
+     * Reads persons one by one and saves the valid ones in chunks. Returns outcome of every person read.
+     */
+    private BatchResult saveAll(PersonsReader persons) {
+
+        long start = System.currentTimeMillis();
+
+        BatchResult result = new BatchResult();
+        List<Person> chunk = new ArrayList<>(batchChunkSize);
+        List<Integer> indexes = new ArrayList<>(batchChunkSize);
+        int index = 0;
+
+        //array elements and values following each other (newline delimited json, cbor sequence) are both read as a sequence of root values
+        try (MappingIterator<Person> iterator = persons.read()) {
+            while (iterator.hasNextValue()) {
+                Person person = iterator.nextValue();
+
+                List<Error> errors = validate(person);
+                if (errors.isEmpty()) {
+                    chunk.add(person);
+                    indexes.add(index);
+                    if (chunk.size() >= batchChunkSize) {
+                        saveChunk(chunk, indexes, result);
+                    }
+                } else {
+                    result.add(new Item(index, person.getId(), Status.INVALID, errors));
+                }
+                index++;
+            }
+        } catch (IOException e) {
+            //malformed input, the rest of the content can not be read reliably
+            result.add(new Item(index, null, Status.INVALID, List.of(new Error(null, null, e.getMessage()))));
+        }
+        saveChunk(chunk, indexes, result);
+
+        result.getItems().sort(Comparator.comparingInt(Item::getIndex));
+        result.setElapsedMillis(System.currentTimeMillis() - start);
+
+        return result;
+    }
+
+    /**
+     * Saves persons of the chunk in one transaction and records the outcome.
+     * A failure marks all persons of the chunk as failed since the whole transaction is rolled back.
+     */
+    private void saveChunk(List<Person> chunk, List<Integer> indexes, BatchResult result) {
+
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<Status> statuses = chunk.stream()
+                .map(person -> person.getId() == null ? Status.CREATED : Status.UPDATED)
+                .collect(Collectors.toList());
+
+        try {
+            List<Person> saved = personService.saveAll(chunk);
+            for (int i = 0; i < saved.size(); i++) {
+                Person person = chunk.get(i);
+                if (saved.get(i) == null) {
+                    String message = person.getVersion() == null ?
+                            "Person " + person.getId() + " not found" :
+                            "Person " + person.getId() + " not found with version " + person.getVersion();
+                    result.add(new Item(indexes.get(i), person.getId(), Status.FAILED, List.of(new Error(ID, String.valueOf(person.getId()), message))));
+                    continue;
+                }
+                if (statuses.get(i) == Status.UPDATED) {
+                    personResponseCache.invalidate(saved.get(i).getId());
+                }
+                result.add(new Item(indexes.get(i), saved.get(i).getId(), statuses.get(i), Collections.emptyList()));
+            }
+        } catch (RuntimeException e) {
+            for (int i = 0; i < chunk.size(); i++) {
+                result.add(new Item(indexes.get(i), chunk.get(i).getId(), Status.FAILED, List.of(new Error(null, null, e.getMessage()))));
+            }
+        }
+
+        chunk.clear();
+        indexes.clear();
+    }
+
+    /**
+     * Returns media type of the person representation requested by the Accept header, json or cbor.
+     */
+    private MediaType representation(HttpRequest<?> request) {
+
+        return acceptsCbor(request) ? CborMediaTypeCodec.APPLICATION_CBOR_TYPE : MediaType.APPLICATION_JSON_TYPE;
+    }
+
+    /**
+     * Cbor is returned only when listed explicitly, with a quality not lower than that of json. Wildcards such as
+     * {@code application/*} get json. Json quality is that of {@code application/json} if listed, of the wildcards otherwise.
+     */
+    private boolean acceptsCbor(HttpRequest<?> request) {
+
+        BigDecimal cbor = null;
+        BigDecimal json = null;
+        BigDecimal wildcard = null;
+        for (MediaType mediaType : request.accept()) {
+            BigDecimal quality = mediaType.getQualityAsNumber();
+            if (mediaType.getName().equals(CborMediaTypeCodec.APPLICATION_CBOR)) {
+                cbor = max(cbor, quality);
+            } else if (mediaType.getName().equals(MediaType.APPLICATION_JSON)) {
+                json = max(json, quality);
+            } else if (mediaType.matches(MediaType.APPLICATION_JSON_TYPE)) {
+                wildcard = max(wildcard, quality);
+            }
+        }
+        if (json == null) {
+            json = wildcard;
+        }
+
+        return cbor != null && cbor.signum() > 0 && (json == null || cbor.compareTo(json) >= 0);
+    }
+
+    private BigDecimal max(@Nullable BigDecimal quality, BigDecimal other) {
+
+        return quality == null || other.compareTo(quality) > 0 ? other : quality;
+    }
+
+    @FunctionalInterface
+    private interface PersonsReader {
+
+        MappingIterator<Person> read() throws IOException;
     }
 
 //    @InitBinder("person")
@@ -0,0 +1,123 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.domain.PersonSummary;
+
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Sparse fieldset of a person requested by the fields parameter, e.g. fields=id,firstName,lastName.
+ * Persons are rendered as maps of the fields requested, in the order of the person properties.
+ */
+final class PersonFields {
+
+    static final String ADDRESSES = "addresses";
+
+    private static final List<String> FIELDS = List.of(
+            "id", "version", "firstName", "lastName", "middleName", "dateOfBirth", "gender", ADDRESSES);
+
+    private final Set<String> fields;
+
+    private PersonFields(Set<String> fields) {
+        this.fields = fields;
+    }
+
+    /**
+     * Parses comma separated field names.
+     * @throws IllegalArgumentException if a field is not a person property or no field is specified
+     */
+    static PersonFields parse(String fields) {
+
+        Set<String> parsed = new HashSet<>();
+        for (String field : fields.split(",")) {
+            field = field.trim();
+            if (field.isEmpty()) {
+                continue;
+            }
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+            parsed.add(field);
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("No fields specified");
+        }
+
+        return new PersonFields(parsed);
+    }
+
+    /**
+     * Returns the fields as a hex mask of the person properties, the same for the same fields in any order.
+     */
+    String key() {
+
+        int mask = 0;
+        for (int i = 0; i < FIELDS.size(); i++) {
+            if (fields.contains(FIELDS.get(i))) {
+                mask |= 1 << i;
+            }
+        }
+
+        return Integer.toHexString(mask);
+    }
+
+    /**
+     * Addresses are loaded only when requested, otherwise persons are read as {@link PersonSummary} projections.
+     */
+    boolean includesAddresses() {
+        return fields.contains(ADDRESSES);
+    }
+
+    Map<String, Object> select(Person person) {
+
+        return select(field -> {
+            switch (field) {
+                case "id": return person.getId();
+                case "version": return person.getVersion();
+                case "firstName": return person.getFirstName();
+                case "lastName": return person.getLastName();
+                case "middleName": return person.getMiddleName();
+                case "dateOfBirth": return person.getDateOfBirth();
+                case "gender": return person.getGender();
+                default: return person.getAddresses();
+            }
+        });
+    }
+
+    Map<String, Object> select(PersonSummary person) {
+
+        return select(field -> {
+            switch (field) {
+                case "id": return person.getId();
+                case "version": return person.getVersion();
+                case "firstName": return person.getFirstName();
+                case "lastName": return person.getLastName();
+                case "middleName": return person.getMiddleName();
+                case "dateOfBirth": return person.getDateOfBirth();
+                case "gender": return person.getGender();
+                default: return null;
+            }
+        });
+    }
+
+    private Map<String, Object> select(Function<String, Object> values) {
+
+        Map<String, Object> selected = new LinkedHashMap<>();
+        for (String field : FIELDS) {
+            if (fields.contains(field)) {
+                Object value = values.apply(field);
+                //absent like the null properties of a person
+                if (value != null) {
+                    selected.put(field, value);
+                }
+            }
+        }
+
+        return selected;
+    }
+}
@@ -0,0 +1,100 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.cache.CacheManager;
+import io.micronaut.cache.SyncCache;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Caches json representation of persons by id, so repeated reads write the cached bytes
+ * instead of serializing the person again.
+ */
+@Singleton
+public class PersonResponseCache {
+
+    public static final String PERSON_RESPONSE_CACHE = "person-response";
+
+    private final SyncCache<?> cache;
+    private final ObjectMapper objectMapper;
+
+    //incremented on every invalidation, a response loaded concurrently with an invalidation is not cached
+    private final AtomicLong generation = new AtomicLong();
+
+    public PersonResponseCache(CacheManager<?> cacheManager, ObjectMapper objectMapper) {
+        this.cache = cacheManager.getCache(PERSON_RESPONSE_CACHE);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Returns cached response or the response of the person provided by the loader. Returns null if there is no person.
+     */
+    public CachedResponse get(Long id, Supplier<Person> loader) {
+
+        CachedResponse response = cache.get(id, CachedResponse.class).orElse(null);
+        if (response == null) {
+            long current = generation.get();
+            Person person = loader.get();
+            if (person != null) {
+                response = encode(person);
+                if (current == generation.get()) {
+                    cache.put(id, response);
+                }
+            }
+        }
+
+        return response;
+    }
+
+    public void invalidate(Long id) {
+
+        generation.incrementAndGet();
+        cache.invalidate(id);
+    }
+
+    public void invalidateAll() {
+
+        generation.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    private CachedResponse encode(Person person) {
+
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(person);
+            return new CachedResponse(body, ETags.of(person));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize person " + person.getId(), e);
+        }
+    }
+
+    public static class CachedResponse {
+        private final byte[] body;
+        private final String etag;
+
+        CachedResponse(byte[] body, String etag) {
+            this.body = body;
+            this.etag = etag;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+
+        public String getEtag() {
+            return etag;
+        }
+
+        /**
+         * Checks value of the If-None-Match header against the etag of this response.
+         */
+        public boolean matches(String ifNoneMatch) {
+
+            return ETags.matches(ifNoneMatch, etag);
+        }
+    }
+}
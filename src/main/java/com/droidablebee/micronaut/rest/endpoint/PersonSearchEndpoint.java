@@ -0,0 +1,53 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.search.NameMatch;
+import com.droidablebee.micronaut.rest.search.PersonNameIndex;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.QueryValue;
+import io.micronaut.security.annotation.Secured;
+import io.micronaut.security.rules.SecurityRule;
+import io.micronaut.validation.Validated;
+import jakarta.inject.Inject;
+
+import java.util.List;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_READ_PERMISSION;
+
+/**
+ * Fuzzy name search served from the in-memory name index. The search neither blocks nor touches the database,
+ * so it runs on the event loop. Enabled by {@link PersonNameIndex#ENABLED}.
+ */
+@Controller
+@Secured(SecurityRule.IS_AUTHENTICATED)
+@Validated
+@Requires(beans = PersonNameIndex.class)
+public class PersonSearchEndpoint {
+
+    static final String PERSON_SEARCH = "/v1/person/search";
+
+    static final String QUERY = "q";
+    static final String LIMIT = "limit";
+
+    @Inject
+    PersonNameIndex personNameIndex;
+
+    @Secured(PERSON_READ_PERMISSION)
+    @Get(PERSON_SEARCH)
+//	@Operation(
+//			summary = "Search persons by name",
+//			description = "Returns persons with first, middle or last names similar to the query, most similar first. Partial and misspelled names match as well.")
+    public HttpResponse<List<NameMatch>> search(
+            /*@Parameter(description = "Partial or misspelled names")*/ @QueryValue(QUERY) String query,
+            /*@Parameter(description = "Maximum number of persons returned")*/ @Nullable @QueryValue(LIMIT) Integer limit) {
+
+        if (query.isBlank()) {
+            return HttpResponse.badRequest();
+        }
+
+        return HttpResponse.ok(personNameIndex.search(query, limit == null || limit < 1 ? personNameIndex.getMaxResults() : limit));
+    }
+}
@@ -0,0 +1,72 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.service.ReactivePersonService;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.MediaType;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Body;
+import io.micronaut.http.annotation.Controller;
+import io.micronaut.http.annotation.Get;
+import io.micronaut.http.annotation.Header;
+import io.micronaut.http.annotation.PathVariable;
+import io.micronaut.http.annotation.Post;
+import io.micronaut.security.annotation.Secured;
+import io.micronaut.security.rules.SecurityRule;
+import io.micronaut.validation.Validated;
+import jakarta.inject.Inject;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.HEADER_TOKEN;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.HEADER_USER_ID;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.ID;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_READ_PERMISSION;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_WRITE_PERMISSION;
+
+/**
+ * Same contract as the matching {@link PersonEndpoint} methods, served on the event loop without waiting for
+ * the database. Enabled by {@link ReactivePersonService#ENABLED} to compare throughput with the blocking endpoints.
+ */
+@Controller
+@Secured(SecurityRule.IS_AUTHENTICATED)
+@Validated
+@Requires(beans = ReactivePersonService.class)
+public class ReactivePersonEndpoint {
+
+    static final String REACTIVE_PERSON = "/v1/reactive/person";
+    static final String REACTIVE_PERSON_BY_ID = "/v1/reactive/person/{" + ID + "}";
+
+    @Inject
+    ReactivePersonService personService;
+
+    @Secured(PERSON_READ_PERMISSION)
+    @Get(REACTIVE_PERSON)
+    public Mono<Page<Person>> getAll(Pageable pageable) {
+
+        return personService.findAll(pageable);
+    }
+
+    @Secured(PERSON_READ_PERMISSION)
+    @Get(REACTIVE_PERSON_BY_ID)
+    public Mono<MutableHttpResponse<Person>> get(@PathVariable(ID) Long id) {
+
+        return personService.findOne(id)
+                .map(HttpResponse::ok)
+                .defaultIfEmpty(HttpResponse.notFound());
+    }
+
+    @Secured(PERSON_WRITE_PERMISSION)
+    @Post(uri = REACTIVE_PERSON, consumes = {MediaType.APPLICATION_JSON, MediaType.APPLICATION_XML})
+    public Mono<MutableHttpResponse<Person>> add(
+            @Valid @Body Person person,
+            @Header(name = HEADER_USER_ID) String userId,
+            @Header(name = HEADER_TOKEN, defaultValue = "") String token) {
+
+        return personService.save(person).map(HttpResponse::ok);
+    }
+}
@@ -0,0 +1,31 @@
+package com.droidablebee.micronaut.rest.endpoint.error;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.annotation.Produces;
+import io.micronaut.http.server.exceptions.ExceptionHandler;
+import jakarta.inject.Singleton;
+
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Responds with 503 right away when the executor running the request is saturated,
+ * so clients can back off instead of waiting for a timeout.
+ */
+@Produces
+@Singleton
+@Requires(classes = {RejectedExecutionException.class, ExceptionHandler.class})
+public class RejectedExecutionExceptionHandler implements ExceptionHandler<RejectedExecutionException, HttpResponse<?>> {
+
+    static final String RETRY_AFTER_SECONDS = "1";
+
+    @Override
+    public HttpResponse<?> handle(HttpRequest request, RejectedExecutionException exception) {
+
+        return HttpResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, RETRY_AFTER_SECONDS);
+    }
+}
@@ -0,0 +1,94 @@
+package com.droidablebee.micronaut.rest.executor;
+
+import io.micronaut.context.annotation.Bean;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Creates the executor used to run blocking person endpoints off the netty event loop.
+ * The executor is bounded: once all the threads are busy and the queue is full, tasks are rejected
+ * with {@link java.util.concurrent.RejectedExecutionException} instead of piling up.
+ */
+@Factory
+public class PersonExecutorFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonExecutorFactory.class);
+
+    public static final String PERSON = "person";
+
+    static final String PLATFORM = "platform";
+    static final String VIRTUAL = "virtual";
+
+    @Named(PERSON)
+    @Singleton
+    @Bean(preDestroy = "shutdown")
+    ExecutorService personExecutor(
+            @Value("${person.executor.type:" + PLATFORM + "}") String type,
+            @Value("${person.executor.threads:10}") int threads,
+            @Value("${person.executor.queue-size:100}") int queueSize) {
+
+        if (VIRTUAL.equalsIgnoreCase(type)) {
+            ExecutorService virtual = newVirtualThreadPerTaskExecutor();
+            if (virtual != null) {
+                //virtual threads are cheap but the connections are not, keep the same capacity as the platform pool
+                return new BoundedExecutorService(virtual, threads + queueSize);
+            }
+            logger.warn("Virtual threads are not supported by java {}, using platform threads", System.getProperty("java.version"));
+        }
+
+        return newPlatformExecutor(threads, queueSize);
+    }
+
+    static ExecutorService newPlatformExecutor(int threads, int queueSize) {
+
+        BlockingQueue<Runnable> queue = queueSize > 0 ? new ArrayBlockingQueue<>(queueSize) : new SynchronousQueue<>();
+
+        return new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, queue,
+                new NamedThreadFactory(PERSON), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Returns virtual thread executor if supported by the running JVM (java 21+) or null otherwise.
+     */
+    static ExecutorService newVirtualThreadPerTaskExecutor() {
+
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+
+    static class NamedThreadFactory implements ThreadFactory {
+
+        private final ThreadFactory delegate = Executors.defaultThreadFactory();
+        private final AtomicInteger counter = new AtomicInteger();
+        private final String prefix;
+
+        NamedThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+
+            Thread thread = delegate.newThread(runnable);
+            thread.setName(prefix + "-executor-thread-" + counter.incrementAndGet());
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.droidablebee.micronaut.rest.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.http.context.ServerRequestContext;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Routes read-only transactions to the replicas and everything else to the default datasource (primary).
+ * <p>
+ * The default datasource is replaced by a {@link RoutingDataSource} whose connections are acquired only when the
+ * first statement is executed, by then the transaction manager has marked the connection read-only or not.
+ * Replicas are picked round robin among the healthy ones, i.e. reachable and lagging less than the maximum lag,
+ * otherwise reads fall back to the primary. Once a request writes, its subsequent reads go to the primary as well,
+ * so the request reads its own writes. Transactions that are not read-only, such as reads filling a cache, are served
+ * by the primary too, and read-only transactions do not fill the hibernate second-level cache.
+ * <p>
+ * The lag is measured by a heartbeat: the current time is written to the primary and read back from every replica.
+ * The lag of a replica is the age, when the replica is read, of the oldest heartbeat it has not applied yet,
+ * so a replica having the latest heartbeat has no lag.
+ */
+@Singleton
+@Requires(property = ReplicaRouter.ENABLED, value = "true")
+public class ReplicaRouter implements BeanCreatedEventListener<DataSource>, Ordered {
+
+    public static final String ENABLED = "person.datasource.routing.enabled";
+
+    static final String PRIMARY = "person.datasource.primary";
+    static final String DEFAULT = "default";
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicaRouter.class);
+
+    /**
+     * Heartbeats kept to tell the oldest one a replica has not applied, replicas further behind are lagging anyway.
+     */
+    private static final int MAX_BEATS = 64;
+
+    private final List<Replica> replicas = new ArrayList<>();
+    private final long maxLagMillis;
+    private final AtomicInteger next = new AtomicInteger();
+    //written by the heartbeat only, which never runs concurrently
+    private final Deque<Long> beats = new ArrayDeque<>();
+
+    private volatile DataSource primary;
+    private volatile boolean heartbeatTable;
+
+    public ReplicaRouter(@Value("${person.datasource.routing.replica-urls:}") List<String> urls,
+                         @Value("${person.datasource.routing.username:sa}") String username,
+                         @Value("${person.datasource.routing.password:}") String password,
+                         @Value("${person.datasource.routing.maximum-pool-size:10}") int maximumPoolSize,
+                         @Value("${person.datasource.routing.max-lag:5s}") Duration maxLag) {
+
+        for (String url : urls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            //the pool is started with the first connection requested, a replica down does not prevent startup
+            HikariDataSource dataSource = new HikariDataSource();
+            dataSource.setPoolName("replica-" + replicas.size());
+            dataSource.setJdbcUrl(url.trim());
+            dataSource.setUsername(username);
+            dataSource.setPassword(password);
+            dataSource.setMaximumPoolSize(maximumPoolSize);
+            dataSource.setReadOnly(true);
+            replicas.add(new Replica(dataSource.getPoolName(), dataSource));
+        }
+        this.maxLagMillis = maxLag.toMillis();
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+
+        if (!DEFAULT.equals(event.getBeanIdentifier().getName())) {
+            return event.getBean();
+        }
+
+        primary = event.getBean();
+        return new RoutingDataSource(primary, this);
+    }
+
+    @Override
+    public int getOrder() {
+        //wraps the connection pool itself, before the datasource is wrapped for statement inspection
+        return HIGHEST_PRECEDENCE;
+    }
+
+    public List<Replica> getReplicas() {
+        return Collections.unmodifiableList(replicas);
+    }
+
+    /**
+     * Returns datasource of the connection, read-only connections are served by a healthy replica
+     * unless the current request has written already.
+     */
+    DataSource route(boolean readOnly) {
+
+        if (!readOnly) {
+            ServerRequestContext.currentRequest().ifPresent(request -> request.setAttribute(PRIMARY, Boolean.TRUE));
+            return primary;
+        }
+
+        boolean written = ServerRequestContext.currentRequest()
+                .flatMap(request -> request.getAttribute(PRIMARY, Boolean.class))
+                .orElse(false);
+        if (!written && !replicas.isEmpty()) {
+            int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+            for (int i = 0; i < replicas.size(); i++) {
+                Replica replica = replicas.get((start + i) % replicas.size());
+                if (replica.isHealthy()) {
+                    replica.connections.increment();
+                    return replica.dataSource;
+                }
+            }
+        }
+
+        return primary;
+    }
+
+    @Scheduled(fixedDelay = "${person.datasource.routing.heartbeat-interval:1s}")
+    void heartbeat() {
+
+        if (primary == null || replicas.isEmpty()) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        try (Connection connection = primary.getConnection(); Statement statement = connection.createStatement()) {
+            if (!heartbeatTable) {
+                statement.execute("create table if not exists replica_heartbeat (id int primary key, beat bigint not null)");
+                heartbeatTable = true;
+            }
+            if (statement.executeUpdate("update replica_heartbeat set beat = " + now + " where id = 1") == 0) {
+                statement.executeUpdate("insert into replica_heartbeat (id, beat) values (1, " + now + ")");
+            }
+        } catch (SQLException e) {
+            logger.warn("Failed to write replica heartbeat", e);
+            return;
+        }
+        beats.addLast(now);
+        if (beats.size() > MAX_BEATS) {
+            beats.removeFirst();
+        }
+
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("select beat from replica_heartbeat where id = 1")) {
+                //a replica without any heartbeat yet is as far behind as it gets
+                replica.lagMillis = resultSet.next() ? lag(resultSet.getLong(1), System.currentTimeMillis()) : Long.MAX_VALUE;
+                replica.error = null;
+            } catch (SQLException e) {
+                replica.lagMillis = Long.MAX_VALUE;
+                replica.error = e.getMessage();
+            }
+        }
+    }
+
+    /**
+     * Returns age of the oldest heartbeat written after the one read from the replica, zero if there is none.
+     */
+    private long lag(long beat, long readMillis) {
+
+        if (beats.isEmpty() || beat < beats.getFirst()) {
+            //the heartbeats not applied are not known, the one applied is the best estimate
+            return Math.max(0, readMillis - beat);
+        }
+        for (long written : beats) {
+            if (written > beat) {
+                return Math.max(0, readMillis - written);
+            }
+        }
+
+        return 0;
+    }
+
+    @PreDestroy
+    void close() {
+
+        replicas.forEach(replica -> replica.dataSource.close());
+    }
+
+    /**
+     * Replica connection pool and its state as of the last heartbeat. Replicas are unhealthy until the first heartbeat.
+     */
+    public class Replica {
+
+        private final String name;
+        private final HikariDataSource dataSource;
+        private final LongAdder connections = new LongAdder();
+
+        private volatile long lagMillis = Long.MAX_VALUE;
+        private volatile String error = "No heartbeat yet";
+
+        Replica(String name, HikariDataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public boolean isHealthy() {
+            return error == null && lagMillis <= maxLagMillis;
+        }
+
+        /**
+         * Lag as of the last heartbeat, Long.MAX_VALUE if unknown.
+         */
+        public long getLagMillis() {
+            return lagMillis;
+        }
+
+        public String getError() {
+            return error;
+        }
+
+        /**
+         * Number of connections routed to this replica.
+         */
+        public long getConnections() {
+            return connections.sum();
+        }
+
+        /**
+         * Reports the hikaricp.connections.* meters of the replica pool, tagged by its name, as the jdbc binder does
+         * for the pools of datasource beans.
+         */
+        public void bindTo(MeterRegistry registry) {
+
+            if (dataSource.getMetricRegistry() == null) {
+                dataSource.setMetricRegistry(registry);
+            }
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.droidablebee.micronaut.rest.jdbc;
+
+import javax.sql.DataSource;
+import java.io.PrintWriter;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.logging.Logger;
+
+/**
+ * Hands out connections that are acquired from the datasource chosen by the router only when first used.
+ * Read-only flag, auto-commit and isolation set before are recorded and applied to the connection acquired,
+ * commit, rollback and close of a connection never used are no-ops.
+ */
+class RoutingDataSource implements DataSource {
+
+    private final DataSource primary;
+    private final ReplicaRouter router;
+
+    RoutingDataSource(DataSource primary, ReplicaRouter router) {
+        this.primary = primary;
+        this.router = router;
+    }
+
+    @Override
+    public Connection getConnection() {
+
+        return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                new LazyConnection(router));
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    private static class LazyConnection implements InvocationHandler {
+
+        private final ReplicaRouter router;
+
+        private Connection target;
+        private boolean readOnly;
+        private boolean autoCommit = true;
+        private Integer isolation;
+        private boolean closed;
+
+        LazyConnection(ReplicaRouter router) {
+            this.router = router;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Lazy connection of " + target;
+                default:
+                    break;
+            }
+
+            if (target == null) {
+                switch (method.getName()) {
+                    case "setReadOnly":
+                        readOnly = (Boolean) args[0];
+                        return null;
+                    case "isReadOnly":
+                        return readOnly;
+                    case "setAutoCommit":
+                        autoCommit = (Boolean) args[0];
+                        return null;
+                    case "getAutoCommit":
+                        return autoCommit;
+                    case "setTransactionIsolation":
+                        isolation = (Integer) args[0];
+                        return null;
+                    case "commit":
+                    case "rollback":
+                    case "clearWarnings":
+                    case "getWarnings":
+                        return null;
+                    case "close":
+                        closed = true;
+                        return null;
+                    case "isClosed":
+                        return closed;
+                    default:
+                        break;
+                }
+
+                if (closed) {
+                    throw new SQLException("Connection is closed");
+                }
+                target = acquire();
+            }
+
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private Connection acquire() throws SQLException {
+
+            Connection connection = router.route(readOnly).getConnection();
+            if (connection.getAutoCommit() != autoCommit) {
+                connection.setAutoCommit(autoCommit);
+            }
+            if (readOnly) {
+                connection.setReadOnly(true);
+            }
+            if (isolation != null) {
+                connection.setTransactionIsolation(isolation);
+            }
+
+            return connection;
+        }
+    }
+}
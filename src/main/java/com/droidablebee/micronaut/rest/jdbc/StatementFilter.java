@@ -0,0 +1,46 @@
+package com.droidablebee.micronaut.rest.jdbc;
+
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import jakarta.inject.Inject;
+import org.reactivestreams.Publisher;
+
+/**
+ * Counts SQL statements executed while serving every request and reports them to the statement monitor.
+ * The count is returned in the response header when enabled, so tests can assert the statements of each endpoint.
+ */
+@Filter(Filter.MATCH_ALL_PATTERN)
+public class StatementFilter implements HttpServerFilter {
+
+    static final String STATEMENTS = StatementFilter.class.getName() + ".statements";
+    public static final String HEADER_STATEMENT_COUNT = "X-Statement-Count";
+
+    @Inject
+    StatementMonitor monitor;
+
+    @Value("${person.statements.header:false}")
+    boolean header;
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+
+        StatementStatistics statistics = new StatementStatistics();
+        request.setAttribute(STATEMENTS, statistics);
+
+        return Publishers.map(chain.proceed(request), response -> {
+            String route = request.getMethodName() + " " +
+                    request.getAttribute(HttpAttributes.URI_TEMPLATE, String.class).orElse(request.getPath());
+            monitor.request(route, statistics);
+            if (header) {
+                response.header(HEADER_STATEMENT_COUNT, String.valueOf(statistics.getCount()));
+            }
+            return response;
+        });
+    }
+}
@@ -0,0 +1,33 @@
+package com.droidablebee.micronaut.rest.jdbc;
+
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import jakarta.inject.Singleton;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Wraps every datasource, so all the statements executed (by hibernate or otherwise) are seen by the listeners.
+ */
+@Singleton
+public class StatementInspectingDataSource implements BeanCreatedEventListener<DataSource> {
+
+    private final List<QueryExecutionListener> listeners;
+
+    public StatementInspectingDataSource(List<QueryExecutionListener> listeners) {
+        this.listeners = listeners;
+    }
+
+    @Override
+    public DataSource onCreated(BeanCreatedEvent<DataSource> event) {
+
+        ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(event.getBean())
+                .name(event.getBeanIdentifier().getName());
+        listeners.forEach(builder::listener);
+
+        return builder.build();
+    }
+}
@@ -0,0 +1,43 @@
+package com.droidablebee.micronaut.rest.jdbc;
+
+import io.micronaut.http.context.ServerRequestContext;
+import jakarta.inject.Singleton;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Counts every statement executed against the request being served and reports slow queries.
+ * A JDBC batch is counted as a single statement since it is sent in a single round trip.
+ */
+@Singleton
+public class StatementListener implements QueryExecutionListener {
+
+    private final StatementMonitor monitor;
+
+    public StatementListener(StatementMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+        //the request context is propagated to the executor running the endpoint methods
+        StatementStatistics statistics = ServerRequestContext.currentRequest()
+                .flatMap(request -> request.getAttribute(StatementFilter.STATEMENTS, StatementStatistics.class))
+                .orElse(null);
+
+        for (QueryInfo query : queryInfoList) {
+            if (statistics != null) {
+                statistics.add(query.getQuery(), execInfo.getElapsedTime());
+            }
+            monitor.statement(query.getQuery(), execInfo.getElapsedTime());
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.droidablebee.micronaut.rest.jdbc;
+
+import io.micronaut.context.annotation.Value;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects statement counts of all the requests served, per route, and keeps the most recent slow queries
+ * and suspicious requests: the ones executing too many statements or repeating the same statement (N+1 selects).
+ */
+@Singleton
+public class StatementMonitor {
+
+    private static final Logger LOG = LoggerFactory.getLogger(StatementMonitor.class);
+
+    static final int RECENT = 100;
+
+    @Value("${person.statements.max-per-request:10}")
+    int maxPerRequest;
+
+    @Value("${person.statements.max-repeated:3}")
+    int maxRepeated;
+
+    @Value("${person.statements.slow-threshold:100ms}")
+    Duration slowThreshold;
+
+    private final Map<String, RouteStatistics> routes = new ConcurrentHashMap<>();
+    private final Deque<Map<String, Object>> slowQueries = new ArrayDeque<>(RECENT);
+    private final Deque<Map<String, Object>> flaggedRequests = new ArrayDeque<>(RECENT);
+
+    /**
+     * Records statements executed by the request, flagging the request if it exceeds the thresholds.
+     */
+    void request(String route, StatementStatistics statistics) {
+
+        routes.computeIfAbsent(route, key -> new RouteStatistics()).add(statistics.getCount());
+
+        Map.Entry<String, Integer> repeated = statistics.getMostRepeated();
+        boolean tooMany = statistics.getCount() > maxPerRequest;
+        boolean tooRepeated = repeated != null && repeated.getValue() > maxRepeated;
+        if (!tooMany && !tooRepeated) {
+            return;
+        }
+
+        LOG.warn("{} executed {} statements, most repeated {} times: {}",
+                route, statistics.getCount(), repeated.getValue(), repeated.getKey());
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("timestamp", Instant.now().toString());
+        request.put("route", route);
+        request.put("statements", statistics.getCount());
+        request.put("mostRepeated", repeated.getKey());
+        request.put("mostRepeatedCount", repeated.getValue());
+        add(flaggedRequests, request);
+    }
+
+    /**
+     * Logs the statement if it took longer than the slow query threshold. Only the sql is logged, not the parameters.
+     */
+    void statement(String sql, long elapsedMillis) {
+
+        if (elapsedMillis < slowThreshold.toMillis()) {
+            return;
+        }
+
+        LOG.warn("Slow query took {} ms: {}", elapsedMillis, sql);
+
+        Map<String, Object> query = new LinkedHashMap<>();
+        query.put("timestamp", Instant.now().toString());
+        query.put("elapsedMillis", elapsedMillis);
+        query.put("sql", sql);
+        add(slowQueries, query);
+    }
+
+    public Map<String, Object> getRoutes() {
+
+        Map<String, Object> result = new TreeMap<>();
+        routes.forEach((route, statistics) -> result.put(route, statistics.toMap()));
+
+        return result;
+    }
+
+    public List<Map<String, Object>> getSlowQueries() {
+
+        synchronized (slowQueries) {
+            return new ArrayList<>(slowQueries);
+        }
+    }
+
+    public List<Map<String, Object>> getFlaggedRequests() {
+
+        synchronized (flaggedRequests) {
+            return new ArrayList<>(flaggedRequests);
+        }
+    }
+
+    private void add(Deque<Map<String, Object>> recent, Map<String, Object> value) {
+
+        synchronized (recent) {
+            if (recent.size() == RECENT) {
+                recent.removeFirst();
+            }
+            recent.addLast(value);
+        }
+    }
+
+    static class RouteStatistics {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        void add(int count) {
+            requests.increment();
+            statements.add(count);
+            max.accumulate(count);
+        }
+
+        Map<String, Object> toMap() {
+
+            long requests = this.requests.sum();
+            long statements = this.statements.sum();
+
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("requests", requests);
+            values.put("statements", statements);
+            values.put("mean", requests == 0 ? 0d : (double) statements / requests);
+            values.put("max", max.get());
+
+            return values;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.droidablebee.micronaut.rest.jdbc;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements executed while serving a single request, counted by statement shape.
+ * Statements differing only in bind parameters (or the number of parameters of an in list) have the same shape.
+ */
+public class StatementStatistics {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern LITERAL = Pattern.compile("'[^']*'|\\b\\d+\\b");
+
+    private final AtomicInteger count = new AtomicInteger();
+    private final LongAdder elapsedMillis = new LongAdder();
+    private final Map<String, AtomicInteger> shapes = new ConcurrentHashMap<>();
+
+    void add(String sql, long elapsed) {
+
+        count.incrementAndGet();
+        elapsedMillis.add(elapsed);
+        shapes.computeIfAbsent(shape(sql), key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public int getCount() {
+        return count.get();
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis.sum();
+    }
+
+    /**
+     * Returns the most repeated statement shape and the number of times it was executed, or null if none.
+     */
+    public Map.Entry<String, Integer> getMostRepeated() {
+
+        return shapes.entrySet().stream()
+                .max(Map.Entry.comparingByValue((a, b) -> Integer.compare(a.get(), b.get())))
+                .map(entry -> Map.entry(entry.getKey(), entry.getValue().get()))
+                .orElse(null);
+    }
+
+    static String shape(String sql) {
+
+        String shape = WHITESPACE.matcher(sql.trim()).replaceAll(" ");
+        shape = LITERAL.matcher(shape).replaceAll("?");
+        return IN_LIST.matcher(shape).replaceAll("(?)");
+    }
+}
@@ -0,0 +1,205 @@
+package com.droidablebee.micronaut.rest.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.zip.CRC32;
+
+/**
+ * Journal of records in a memory-mapped file of fixed size, used as a ring buffer.
+ * <p>
+ * The header holds the position up to which the records are drained (applied to the database). Every record is
+ * written as length, crc32 and payload followed by a zero length, the length of the record is written last so a
+ * record torn by a crash is never read. A record not fitting before the end of the file is written at the beginning
+ * instead, once the records there are drained, and the position it would have been written at is marked as a wrap.
+ * The write position never reaches the drained position, the zero length following the last record is always
+ * in the space drained. On open the records are scanned from the drained position, following the wrap, until
+ * the first zero length or invalid record, so the records not drained before a crash are replayed.
+ */
+public class PersonJournal implements Closeable {
+
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = 8;
+
+    /**
+     * Length marking the position the records continue from the beginning of the file.
+     */
+    static final int WRAP = -1;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final boolean force;
+
+    private int drained;
+    private int written;
+
+    /**
+     * @param force forces every record to the storage device before {@link #append(byte[])} returns
+     */
+    public PersonJournal(Path file, int capacity, boolean force) throws IOException {
+
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(capacity, channel.size()));
+        this.force = force;
+
+        long position = buffer.getLong(0);
+        drained = position < HEADER_SIZE || position + Integer.BYTES > buffer.capacity() ? HEADER_SIZE : (int) position;
+        written = drained;
+        boolean wrapped = false;
+        while (true) {
+            if (buffer.getInt(written) == WRAP && !wrapped) {
+                written = HEADER_SIZE;
+                wrapped = true;
+            }
+            int next = next(written);
+            //records following the wrap end before the drained position
+            if (next == -1 || wrapped && next + Integer.BYTES > drained) {
+                break;
+            }
+            written = next;
+        }
+    }
+
+    /**
+     * Appends the record, durable once this method returns if forced.
+     * @throws RejectedExecutionException if the journal is full, until the records are drained
+     */
+    public synchronized void append(byte[] payload) {
+
+        int length = RECORD_HEADER_SIZE + payload.length;
+        int position = written;
+        int limit = written >= drained ? buffer.capacity() : drained;
+        if (written >= drained && written + length + Integer.BYTES > limit) {
+            //does not fit before the end of the file, continue from the beginning
+            position = HEADER_SIZE;
+            limit = drained;
+        }
+        int end = position + length;
+        if (end + Integer.BYTES > limit) {
+            throw new RejectedExecutionException("Journal is full");
+        }
+
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        buffer.putInt(position + Integer.BYTES, (int) crc.getValue());
+        ((ByteBuffer) buffer.duplicate().position(position + RECORD_HEADER_SIZE)).put(payload);
+        buffer.putInt(end, 0);
+        buffer.putInt(position, payload.length);
+        if (position != written) {
+            //marked once the record is complete, a crash before leaves the zero length there
+            buffer.putInt(written, WRAP);
+        }
+        if (force) {
+            buffer.force();
+        }
+
+        written = end;
+    }
+
+    /**
+     * Returns up to max records following the drained position, without draining them.
+     */
+    public synchronized Records read(int max) {
+
+        List<byte[]> payloads = new ArrayList<>();
+        int position = drained;
+        while (payloads.size() < max && position != written) {
+            int length = buffer.getInt(position);
+            if (length == WRAP) {
+                position = HEADER_SIZE;
+                continue;
+            }
+            payloads.add(payload(position, length));
+            position += RECORD_HEADER_SIZE + length;
+        }
+
+        return new Records(payloads, position);
+    }
+
+    /**
+     * Marks the records read as drained, the space they take is reused by the records appended later.
+     * The drained position does not have to be forced, records replayed after a crash are applied again
+     * and the ones applied already are skipped by the writer.
+     */
+    public synchronized void drained(Records records) {
+
+        drained = records.end;
+        buffer.putLong(0, drained);
+    }
+
+    /**
+     * Number of bytes of the records not drained yet.
+     */
+    public synchronized int pending() {
+        return written >= drained ? written - drained : buffer.capacity() - drained + written - HEADER_SIZE;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+
+        buffer.force();
+        channel.close();
+    }
+
+    /**
+     * Returns position of the record following the valid record at the position or -1 if there is none.
+     */
+    private int next(int position) {
+
+        if (position + RECORD_HEADER_SIZE > buffer.capacity()) {
+            return -1;
+        }
+
+        int length = buffer.getInt(position);
+        int end = position + RECORD_HEADER_SIZE + length;
+        if (length <= 0 || end + Integer.BYTES > buffer.capacity()) {
+            return -1;
+        }
+
+        byte[] payload = payload(position, length);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+
+        return (int) crc.getValue() == buffer.getInt(position + Integer.BYTES) ? end : -1;
+    }
+
+    private byte[] payload(int position, int length) {
+
+        byte[] payload = new byte[length];
+        ((ByteBuffer) buffer.duplicate().position(position + RECORD_HEADER_SIZE)).get(payload);
+
+        return payload;
+    }
+
+    /**
+     * Records read from the journal and the position following the last one.
+     */
+    public static class Records {
+
+        private final List<byte[]> payloads;
+        private final int end;
+
+        Records(List<byte[]> payloads, int end) {
+            this.payloads = payloads;
+            this.end = end;
+        }
+
+        public List<byte[]> getPayloads() {
+            return payloads;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.droidablebee.micronaut.rest.management;
+
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Exposes hibernate second-level and query cache statistics, including hit ratio of every cache region.
+ */
+@Endpoint(id = HibernateEndpoint.NAME)
+public class HibernateEndpoint {
+
+    static final String NAME = "hibernate";
+
+    private final SessionFactory sessionFactory;
+
+    public HibernateEndpoint(SessionFactory sessionFactory) {
+        this.sessionFactory = sessionFactory;
+    }
+
+    @Read
+    public Map<String, Object> statistics() {
+
+        Statistics statistics = sessionFactory.getStatistics();
+
+        Map<String, Object> regions = new TreeMap<>();
+        for (String region : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(region);
+            if (regionStatistics != null) {
+                Map<String, Object> values = cache(regionStatistics.getHitCount(), regionStatistics.getMissCount(), regionStatistics.getPutCount());
+                values.put("elementCountInMemory", regionStatistics.getElementCountInMemory());
+                regions.put(region, values);
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("secondLevelCache", cache(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount(), statistics.getSecondLevelCachePutCount()));
+        result.put("queryCache", cache(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount(), statistics.getQueryCachePutCount()));
+        result.put("regions", regions);
+
+        return result;
+    }
+
+    private Map<String, Object> cache(long hits, long misses, long puts) {
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("hitCount", hits);
+        values.put("missCount", misses);
+        values.put("putCount", puts);
+        values.put("hitRatio", hits + misses == 0 ? 0d : (double) hits / (hits + misses));
+
+        return values;
+    }
+}
@@ -0,0 +1,67 @@
+package com.droidablebee.micronaut.rest.management;
+
+import com.droidablebee.micronaut.rest.jdbc.ReplicaRouter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import io.micronaut.context.annotation.Factory;
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.HibernateMetrics;
+
+import java.util.Collections;
+
+/**
+ * Meters not provided by the micronaut metrics binders: hibernate statistics, replica pools and latency percentiles.
+ */
+@Factory
+public class MetricsFactory {
+
+    static final String HTTP_SERVER_REQUESTS = "http.server.requests";
+    public static final String PERSON_SERVICE = "person.service";
+
+    /**
+     * Publishes percentiles and histogram buckets of request and service timers, averages hide the tail latency.
+     */
+    @Singleton
+    MeterFilter percentiles() {
+
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+
+                if (id.getName().startsWith(HTTP_SERVER_REQUESTS) || id.getName().startsWith(PERSON_SERVICE)) {
+                    return DistributionStatisticConfig.builder()
+                            .percentiles(0.5, 0.95, 0.99)
+                            .percentilesHistogram(true)
+                            .build()
+                            .merge(config);
+                }
+
+                return config;
+            }
+        };
+    }
+
+    /**
+     * Query, flush, entity load and cache counters, hibernate statistics are enabled by application.yml.
+     */
+    @Singleton
+    HibernateMetrics hibernateMetrics(SessionFactory sessionFactory) {
+
+        return new HibernateMetrics(sessionFactory, "default", Collections.emptyList());
+    }
+
+    /**
+     * Connection pool meters of the read replicas, their pools are not datasource beans the jdbc binder would find.
+     */
+    @Singleton
+    @Requires(beans = ReplicaRouter.class)
+    @Requires(property = "micronaut.metrics.binders.jdbc.enabled", value = "true")
+    MeterBinder replicaPoolMetrics(ReplicaRouter router) {
+
+        return registry -> router.getReplicas().forEach(replica -> replica.bindTo(registry));
+    }
+}
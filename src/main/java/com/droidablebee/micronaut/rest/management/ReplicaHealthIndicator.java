@@ -0,0 +1,54 @@
+package com.droidablebee.micronaut.rest.management;
+
+import com.droidablebee.micronaut.rest.jdbc.ReplicaRouter;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.health.HealthStatus;
+import io.micronaut.management.health.indicator.HealthIndicator;
+import io.micronaut.management.health.indicator.HealthResult;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Status, lag and number of connections routed of every read replica, as of the last heartbeat.
+ * Up as long as at least one replica serves reads, reads fall back to the primary otherwise.
+ */
+@Singleton
+@Requires(beans = ReplicaRouter.class)
+public class ReplicaHealthIndicator implements HealthIndicator {
+
+    static final String NAME = "replicas";
+
+    private final ReplicaRouter router;
+
+    public ReplicaHealthIndicator(ReplicaRouter router) {
+        this.router = router;
+    }
+
+    @Override
+    public Publisher<HealthResult> getResult() {
+
+        Map<String, Object> details = new LinkedHashMap<>();
+        boolean healthy = router.getReplicas().isEmpty();
+        for (ReplicaRouter.Replica replica : router.getReplicas()) {
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("status", replica.isHealthy() ? HealthStatus.UP.getName() : HealthStatus.DOWN.getName());
+            if (replica.getLagMillis() != Long.MAX_VALUE) {
+                detail.put("lagMillis", replica.getLagMillis());
+            }
+            detail.put("connections", replica.getConnections());
+            if (replica.getError() != null) {
+                detail.put("error", replica.getError());
+            }
+            details.put(replica.getName(), detail);
+            healthy |= replica.isHealthy();
+        }
+
+        return Mono.just(HealthResult.builder(NAME, healthy ? HealthStatus.UP : HealthStatus.DOWN)
+                .details(details)
+                .build());
+    }
+}
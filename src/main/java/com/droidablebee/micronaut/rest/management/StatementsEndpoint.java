@@ -0,0 +1,35 @@
+package com.droidablebee.micronaut.rest.management;
+
+import com.droidablebee.micronaut.rest.jdbc.StatementMonitor;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Exposes SQL statement counts per route along with the recent slow queries and requests flagged as
+ * executing too many or repeated statements.
+ */
+@Endpoint(id = StatementsEndpoint.NAME)
+public class StatementsEndpoint {
+
+    static final String NAME = "statements";
+
+    private final StatementMonitor monitor;
+
+    public StatementsEndpoint(StatementMonitor monitor) {
+        this.monitor = monitor;
+    }
+
+    @Read
+    public Map<String, Object> statements() {
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("routes", monitor.getRoutes());
+        result.put("flaggedRequests", monitor.getFlaggedRequests());
+        result.put("slowQueries", monitor.getSlowQueries());
+
+        return result;
+    }
+}
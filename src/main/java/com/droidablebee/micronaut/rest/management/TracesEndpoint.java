@@ -0,0 +1,30 @@
+package com.droidablebee.micronaut.rest.management;
+
+import com.droidablebee.micronaut.rest.tracing.Tracer;
+import io.micronaut.management.endpoint.annotation.Endpoint;
+import io.micronaut.management.endpoint.annotation.Read;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exposes the most recent request traces with spans of security, endpoint and service methods, jdbc statements
+ * and response encoding.
+ */
+@Endpoint(id = TracesEndpoint.NAME)
+public class TracesEndpoint {
+
+    static final String NAME = "traces";
+
+    private final Tracer tracer;
+
+    public TracesEndpoint(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Read
+    public List<Map<String, Object>> traces() {
+
+        return tracer.getTraces();
+    }
+}
@@ -2,26 +2,81 @@ package com.droidablebee.micronaut.rest.repository;
 
 
 import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.domain.PersonSummary;
 import io.micronaut.data.annotation.Query;
+import io.micronaut.data.annotation.QueryHint;
 import io.micronaut.data.annotation.Repository;
 import io.micronaut.data.jpa.annotation.EntityGraph;
 import io.micronaut.data.jpa.repository.JpaRepository;
-import io.micronaut.data.model.Page;
+import io.micronaut.data.jpa.repository.JpaSpecificationExecutor;
 import io.micronaut.data.model.Pageable;
 
 import javax.validation.constraints.NotNull;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface PersonRepository extends JpaRepository<Person, Long> {
+public interface PersonRepository extends JpaRepository<Person, Long>, JpaSpecificationExecutor<Person> {
 
     @Override
     //use left join instead of separate sql statements to fetch relationships
     @EntityGraph(attributePaths = {"addresses"})
     Optional<Person> findById(@NotNull Long aLong);
 
-    @Override
-    //use left join instead of separate sql statements to fetch relationships
-    @Query(value = "select p from Person p left join fetch p.addresses a", countQuery = "select count(p) from Person p left join p.addresses a")
-    Page<Person> findAll(Pageable pageable);
-}
\ No newline at end of file
+    /**
+     * First phase of the page lookup: pages person ids only, so limit/offset are applied by the database.
+     * Combining a fetch join with a pageable makes hibernate paginate the whole join in memory.
+     */
+    @Query("select p.id from Person p")
+    List<Long> findIds(Pageable pageable);
+
+    /**
+     * Counts persons for the page lookup. The result is kept in the query cache until the person table changes.
+     */
+    @Query("select count(p) from Person p")
+    @QueryHint(name = "org.hibernate.cacheable", value = "true")
+    long countPersons();
+
+    /**
+     * First page of the keyset lookup ordered by last name and id.
+     * Only the page size of the pageable is used.
+     */
+    @Query("select p.id from Person p order by p.lastName, p.id")
+    List<Long> findIdsOrderByLastName(Pageable pageable);
+
+    /**
+     * Next page of the keyset lookup ordered by last name and id, starting right after the given position.
+     * Unlike offset paging the database seeks to the position instead of skipping all the preceding rows.
+     */
+    @Query("select p.id from Person p where p.lastName > :lastName or (p.lastName = :lastName and p.id > :id) order by p.lastName, p.id")
+    List<Long> findIdsOrderByLastNameAfter(String lastName, Long id, Pageable pageable);
+
+    /**
+     * Second phase of the page lookup: loads persons with their addresses for the given ids in a single statement.
+     * The order of the returned persons is unspecified.
+     */
+    @Query("select distinct p from Person p left join fetch p.addresses a where p.id in (:ids)")
+    List<Person> findAllWithAddresses(Collection<Long> ids);
+
+    /**
+     * Page of person columns only, selected into the projection without joining the addresses.
+     */
+    List<PersonSummary> list(Pageable pageable);
+
+    /**
+     * Person columns only, selected into the projection without joining the addresses.
+     */
+    Optional<PersonSummary> queryById(@NotNull Long id);
+
+    /**
+     * Keyset page of person columns only, after the given id in the order of the pageable.
+     */
+    List<PersonSummary> queryByIdGreaterThan(Long id, Pageable pageable);
+
+    /**
+     * Returns those of the ids that are ids of existing persons.
+     */
+    @Query("select p.id from Person p where p.id in (:ids)")
+    List<Long> findExistingIds(Collection<Long> ids);
+}
@@ -0,0 +1,97 @@
+package com.droidablebee.micronaut.rest.repository;
+
+import com.droidablebee.micronaut.rest.domain.Address;
+import com.droidablebee.micronaut.rest.domain.Person;
+import io.micronaut.data.jpa.repository.criteria.Specification;
+
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import javax.persistence.criteria.Subquery;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Criteria of the person search, combined with {@link Specification#and(Specification)}.
+ * Every criterion is supported by an index of the person or address table.
+ */
+public final class PersonSpecifications {
+
+    private static final char ESCAPE = '\\';
+
+    private PersonSpecifications() {
+    }
+
+    /**
+     * Last name starting with the prefix, case sensitive so the last name index can be used.
+     */
+    public static Specification<Person> lastNameStartsWith(String prefix) {
+
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.like(root.get("lastName"), escape(prefix) + "%", ESCAPE);
+    }
+
+    /**
+     * Born on or after the date, inclusive.
+     */
+    public static Specification<Person> bornFrom(Date from) {
+
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.greaterThanOrEqualTo(root.get("dateOfBirth"), from);
+    }
+
+    /**
+     * Born before the date, exclusive.
+     */
+    public static Specification<Person> bornBefore(Date before) {
+
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.lessThan(root.get("dateOfBirth"), before);
+    }
+
+    public static Specification<Person> hasGender(Person.Gender gender) {
+
+        return (root, query, criteriaBuilder) ->
+                criteriaBuilder.equal(root.get("gender"), gender);
+    }
+
+    /**
+     * Has at least one address matching all the non null values.
+     * An exists subquery is used instead of a join, so neither the page nor the count contain duplicate persons.
+     */
+    public static Specification<Person> hasAddress(String city, String state, String zip) {
+
+        return (root, query, criteriaBuilder) -> {
+            Subquery<Long> addresses = query.subquery(Long.class);
+            Join<Person, Address> address = addresses.correlate(root).join("addresses");
+
+            List<Predicate> predicates = new ArrayList<>();
+            if (city != null) {
+                predicates.add(criteriaBuilder.equal(address.get("city"), city));
+            }
+            if (state != null) {
+                predicates.add(criteriaBuilder.equal(address.get("state"), state));
+            }
+            if (zip != null) {
+                predicates.add(criteriaBuilder.equal(address.get("zip"), zip));
+            }
+
+            addresses.select(address.get("id")).where(predicates.toArray(new Predicate[0]));
+            return criteriaBuilder.exists(addresses);
+        };
+    }
+
+    private static String escape(String value) {
+
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            if (c == '%' || c == '_' || c == ESCAPE) {
+                escaped.append(ESCAPE);
+            }
+            escaped.append(c);
+        }
+
+        return escaped.toString();
+    }
+}
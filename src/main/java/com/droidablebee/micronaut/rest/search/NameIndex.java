@@ -0,0 +1,340 @@
+package com.droidablebee.micronaut.rest.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted trigram index of person names. Every word of the names is lower cased and padded like "  word ",
+ * its trigrams point to the documents (names of one person) containing them. A query matches documents sharing
+ * its trigrams, ranked by the trigram similarity |q &cap; d| / |q &cup; d|, so misspelled and partial names still match.
+ * <p>
+ * Documents are numbered in the order they are added and posting lists are appended to, so they stay sorted.
+ * An update replaces the document of the person with a new one, the old one (like a removed one) is skipped until
+ * the index is compacted.
+ * Searches run concurrently under a read lock, updates take the write lock.
+ */
+public class NameIndex {
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Integer> documents = new HashMap<>();
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    private Document[] entries = new Document[INITIAL_CAPACITY];
+    private int size;
+    private int removed;
+
+    /**
+     * Adds names of the person or replaces the names indexed before.
+     */
+    public void put(long id, String firstName, String middleName, String lastName) {
+
+        long[] trigrams = trigrams(firstName, middleName, lastName);
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = documents.get(id);
+            if (existing != null) {
+                if (entries[existing].hasNames(firstName, middleName, lastName)) {
+                    return;
+                }
+                entries[existing] = null;
+                removed++;
+            }
+
+            if (size == entries.length) {
+                if (removed > size / 2) {
+                    compact();
+                } else {
+                    entries = Arrays.copyOf(entries, size * 2);
+                }
+            }
+
+            int document = size++;
+            entries[document] = new Document(id, firstName, middleName, lastName, trigrams.length);
+            documents.put(id, document);
+            for (long trigram : trigrams) {
+                postings.computeIfAbsent(trigram, key -> new Postings()).add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes names of the person, if indexed. The document is skipped until the index is compacted.
+     */
+    public void remove(long id) {
+
+        lock.writeLock().lock();
+        try {
+            Integer existing = documents.remove(id);
+            if (existing != null) {
+                entries[existing] = null;
+                removed++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes all the persons.
+     */
+    public void clear() {
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            entries = new Document[INITIAL_CAPACITY];
+            size = 0;
+            removed = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to limit persons with names at least as similar to the query as the minimum, most similar first.
+     */
+    public List<NameMatch> search(String query, int limit, float minSimilarity) {
+
+        long[] trigrams = trigrams(query);
+        if (trigrams.length == 0 || limit < 1) {
+            return Collections.emptyList();
+        }
+
+        lock.readLock().lock();
+        try {
+            List<Postings> lists = new ArrayList<>(trigrams.length);
+            for (long trigram : trigrams) {
+                Postings list = postings.get(trigram);
+                if (list != null) {
+                    lists.add(list);
+                }
+            }
+            lists.sort(Comparator.comparingInt(list -> list.size));
+
+            //similarity of at least s requires at least s * |q| shared trigrams, so every match is found in the lists
+            //except the (required - 1) longest ones, these are only probed for the candidates already found
+            int required = Math.max(1, (int) Math.ceil(minSimilarity * trigrams.length));
+            int candidateLists = lists.size() - required + 1;
+
+            Scratch scratch = this.scratch.get();
+            int[] counts = scratch.counts(size);
+            int[] candidates = scratch.candidates;
+            int found = 0;
+
+            for (int i = 0; i < lists.size(); i++) {
+                Postings list = lists.get(i);
+                if (i < candidateLists) {
+                    for (int j = 0; j < list.size; j++) {
+                        int document = list.documents[j];
+                        if (counts[document]++ == 0) {
+                            if (found == candidates.length) {
+                                candidates = scratch.candidates = Arrays.copyOf(candidates, found * 2);
+                            }
+                            candidates[found++] = document;
+                        }
+                    }
+                } else if ((long) found * 32 < list.size) {
+                    for (int j = 0; j < found; j++) {
+                        if (Arrays.binarySearch(list.documents, 0, list.size, candidates[j]) >= 0) {
+                            counts[candidates[j]]++;
+                        }
+                    }
+                } else {
+                    for (int j = 0; j < list.size; j++) {
+                        int document = list.documents[j];
+                        if (counts[document] > 0) {
+                            counts[document]++;
+                        }
+                    }
+                }
+            }
+
+            PriorityQueue<NameMatch> best = new PriorityQueue<>(limit + 1, Comparator.comparingDouble(NameMatch::getScore));
+            for (int i = 0; i < found; i++) {
+                int document = candidates[i];
+                int shared = counts[document];
+                counts[document] = 0;
+
+                Document entry = entries[document];
+                if (entry == null || shared < required) {
+                    continue;
+                }
+                float score = (float) shared / (trigrams.length + entry.trigrams - shared);
+                if (score >= minSimilarity && (best.size() < limit || score > best.peek().getScore())) {
+                    best.add(new NameMatch(entry.id, entry.firstName, entry.middleName, entry.lastName, score));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            List<NameMatch> matches = new ArrayList<>(best);
+            matches.sort(Comparator.comparingDouble(NameMatch::getScore).reversed());
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of persons indexed.
+     */
+    public int size() {
+
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Renumbers the documents left after updates, keeping their order so the posting lists stay sorted.
+     */
+    private void compact() {
+
+        int[] renumbered = new int[size];
+        int live = 0;
+        for (int document = 0; document < size; document++) {
+            if (entries[document] == null) {
+                renumbered[document] = -1;
+            } else {
+                renumbered[document] = live;
+                entries[live] = entries[document];
+                documents.put(entries[live].id, live);
+                live++;
+            }
+        }
+        Arrays.fill(entries, live, size, null);
+
+        postings.values().removeIf(list -> list.renumber(renumbered) == 0);
+        size = live;
+        removed = 0;
+    }
+
+    /**
+     * Distinct trigrams of all the words of the names, every trigram packed into a long.
+     */
+    static long[] trigrams(String... names) {
+
+        long[] trigrams = new long[16];
+        int count = 0;
+
+        for (String name : names) {
+            if (name == null) {
+                continue;
+            }
+            String normalized = name.toLowerCase(Locale.ROOT);
+            int start = -1;
+            for (int i = 0; i <= normalized.length(); i++) {
+                boolean letter = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+                if (letter && start == -1) {
+                    start = i;
+                } else if (!letter && start != -1) {
+                    String padded = "  " + normalized.substring(start, i) + " ";
+                    for (int j = 0; j + 3 <= padded.length(); j++) {
+                        if (count == trigrams.length) {
+                            trigrams = Arrays.copyOf(trigrams, count * 2);
+                        }
+                        trigrams[count++] = ((long) padded.charAt(j) << 32) | ((long) padded.charAt(j + 1) << 16) | padded.charAt(j + 2);
+                    }
+                    start = -1;
+                }
+            }
+        }
+
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static class Document {
+
+        final long id;
+        final String firstName;
+        final String middleName;
+        final String lastName;
+        final int trigrams;
+
+        Document(long id, String firstName, String middleName, String lastName, int trigrams) {
+            this.id = id;
+            this.firstName = firstName;
+            this.middleName = middleName;
+            this.lastName = lastName;
+            this.trigrams = trigrams;
+        }
+
+        boolean hasNames(String firstName, String middleName, String lastName) {
+            return Objects.equals(this.firstName, firstName) && Objects.equals(this.middleName, middleName) && Objects.equals(this.lastName, lastName);
+        }
+    }
+
+    private static class Postings {
+
+        int[] documents = new int[4];
+        int size;
+
+        void add(int document) {
+
+            if (size == documents.length) {
+                documents = Arrays.copyOf(documents, size * 2);
+            }
+            documents[size++] = document;
+        }
+
+        int renumber(int[] renumbered) {
+
+            int live = 0;
+            for (int i = 0; i < size; i++) {
+                int document = renumbered[documents[i]];
+                if (document != -1) {
+                    documents[live++] = document;
+                }
+            }
+            size = live;
+
+            return size;
+        }
+    }
+
+    /**
+     * Per thread counters of the shared trigrams, reset after every search so they are reused without clearing.
+     */
+    private static class Scratch {
+
+        int[] counts = new int[0];
+        int[] candidates = new int[INITIAL_CAPACITY];
+
+        int[] counts(int size) {
+
+            if (counts.length < size) {
+                counts = new int[Math.max(size, counts.length * 2)];
+            }
+            return counts;
+        }
+    }
+}
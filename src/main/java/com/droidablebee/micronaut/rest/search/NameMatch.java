@@ -0,0 +1,44 @@
+package com.droidablebee.micronaut.rest.search;
+
+import io.micronaut.core.annotation.Introspected;
+
+/**
+ * Person found by the name search with the similarity of its names to the query, between 0 and 1.
+ */
+@Introspected
+public class NameMatch {
+
+    private final long id;
+    private final String firstName;
+    private final String middleName;
+    private final String lastName;
+    private final float score;
+
+    public NameMatch(long id, String firstName, String middleName, String lastName, float score) {
+        this.id = id;
+        this.firstName = firstName;
+        this.middleName = middleName;
+        this.lastName = lastName;
+        this.score = score;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public String getFirstName() {
+        return firstName;
+    }
+
+    public String getMiddleName() {
+        return middleName;
+    }
+
+    public String getLastName() {
+        return lastName;
+    }
+
+    public float getScore() {
+        return score;
+    }
+}
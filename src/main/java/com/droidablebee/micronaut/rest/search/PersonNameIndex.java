@@ -0,0 +1,104 @@
+package com.droidablebee.micronaut.rest.search;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.domain.PersonSummary;
+import com.droidablebee.micronaut.rest.repository.PersonRepository;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.StartupEvent;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.transaction.annotation.TransactionalEventListener;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+
+/**
+ * Name search over all the persons. The index is built from the database at startup and updated with the persons
+ * saved by the person service once their transaction commits. Persons deleted directly in the database stay indexed
+ * until removed.
+ */
+@Singleton
+@Requires(property = PersonNameIndex.ENABLED, value = "true", defaultValue = "true")
+public class PersonNameIndex {
+
+    public static final String ENABLED = "person.search.enabled";
+
+    private static final Logger logger = LoggerFactory.getLogger(PersonNameIndex.class);
+
+    private final NameIndex index = new NameIndex();
+    private final PersonRepository repository;
+    private final int maxResults;
+    private final float minSimilarity;
+    private final int loadBatchSize;
+
+    public PersonNameIndex(PersonRepository repository,
+                           @Value("${person.search.max-results:20}") int maxResults,
+                           @Value("${person.search.min-similarity:0.3}") float minSimilarity,
+                           @Value("${person.search.load-batch-size:10000}") int loadBatchSize) {
+        this.repository = repository;
+        this.maxResults = maxResults;
+        this.minSimilarity = minSimilarity;
+        this.loadBatchSize = loadBatchSize;
+    }
+
+    /**
+     * Returns persons with names similar to the query, most similar first.
+     * @param limit maximum number of persons returned, capped by person.search.max-results
+     */
+    public List<NameMatch> search(String query, int limit) {
+
+        return index.search(query, Math.min(limit, maxResults), minSimilarity);
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Removes the person from the index, for persons deleted directly in the database.
+     */
+    public void remove(long id) {
+
+        index.remove(id);
+    }
+
+    /**
+     * Removes all the persons from the index, for persons deleted directly in the database.
+     */
+    public void clear() {
+
+        index.clear();
+    }
+
+    @EventListener
+    void onStartup(StartupEvent event) {
+
+        long start = System.currentTimeMillis();
+        Pageable pageable = Pageable.from(0, loadBatchSize, Sort.of(Sort.Order.asc("id")));
+
+        //keyset paging over the person columns only, without addresses or managed entities
+        List<PersonSummary> persons = repository.queryByIdGreaterThan(0L, pageable);
+        while (!persons.isEmpty()) {
+            for (PersonSummary person : persons) {
+                index.put(person.getId(), person.getFirstName(), person.getMiddleName(), person.getLastName());
+            }
+            persons = persons.size() < loadBatchSize ?
+                    List.of() :
+                    repository.queryByIdGreaterThan(persons.get(persons.size() - 1).getId(), pageable);
+        }
+
+        logger.info("Indexed names of {} persons in {} ms", index.size(), System.currentTimeMillis() - start);
+    }
+
+    @TransactionalEventListener
+    void onSaved(PersonsSavedEvent event) {
+
+        for (Person person : event.getPersons()) {
+            index.put(person.getId(), person.getFirstName(), person.getMiddleName(), person.getLastName());
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.droidablebee.micronaut.rest.search;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+
+import java.util.List;
+
+/**
+ * Persons created or updated by the person service, delivered to listeners after the transaction commits.
+ */
+public class PersonsSavedEvent {
+
+    private final List<Person> persons;
+
+    public PersonsSavedEvent(List<Person> persons) {
+        this.persons = persons;
+    }
+
+    public List<Person> getPersons() {
+        return persons;
+    }
+}
@@ -0,0 +1,158 @@
+package com.droidablebee.micronaut.rest.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.core.order.Ordered;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.authentication.AuthenticationException;
+import io.micronaut.security.token.jwt.validator.JwtTokenValidator;
+import io.micronaut.security.token.validator.TokenValidator;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Validates tokens with the jwt validator once and keeps the resulting authentication until the token expires
+ * (but no longer than the max ttl configured), so a token reused by the client is not parsed and verified again.
+ * Tokens are cached by their SHA-256 digest, the tokens themselves are not kept in memory.
+ * Runs before the jwt validator and rejects the tokens the jwt validator did not validate with an
+ * {@link AuthenticationException} (401), so that the jwt validator does not verify an invalid token a second time.
+ * Permissions granted by the token are resolved into {@link PermissionBits} along with the authentication.
+ */
+@Singleton
+@Requires(property = CachingTokenValidator.ENABLED, value = "true", defaultValue = "true")
+public class CachingTokenValidator implements TokenValidator, MeterBinder {
+
+    public static final String ENABLED = "person.security.token-cache.enabled";
+
+    static final String CACHE = "jwt";
+    static final String EXPIRATION = "exp";
+
+    private final JwtTokenValidator validator;
+    private final PermissionBits permissionBits;
+    private final Cache<ByteBuffer, Authentication> cache;
+    private final long maxTtlNanos;
+
+    public CachingTokenValidator(JwtTokenValidator validator,
+                                 PermissionBits permissionBits,
+                                 @Value("${person.security.token-cache.maximum-size:10000}") long maximumSize,
+                                 @Value("${person.security.token-cache.max-ttl:5m}") Duration maxTtl) {
+
+        this.validator = validator;
+        this.permissionBits = permissionBits;
+        this.maxTtlNanos = maxTtl.toNanos();
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public Publisher<Authentication> validateToken(String token, @Nullable HttpRequest<?> request) {
+
+        ByteBuffer key = digest(token);
+        Authentication authentication = cache.getIfPresent(key);
+        if (authentication != null) {
+            return Mono.just(authentication);
+        }
+
+        return Mono.from(validator.validateToken(token, request))
+                .map(this::withPermissionBits)
+                .doOnNext(validated -> cache.put(key, validated))
+                .switchIfEmpty(Mono.error(() -> new AuthenticationException("Invalid token")));
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+
+        CaffeineCacheMetrics.monitor(registry, cache, CACHE);
+    }
+
+    Cache<ByteBuffer, Authentication> getCache() {
+        return cache;
+    }
+
+    private Authentication withPermissionBits(Authentication authentication) {
+
+        Map<String, Object> attributes = new HashMap<>(authentication.getAttributes());
+        permissionBits.grant(authentication.getRoles(), attributes);
+
+        return Authentication.build(authentication.getName(), authentication.getRoles(), attributes);
+    }
+
+    static ByteBuffer digest(String token) {
+
+        try {
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Expires authentication at the token expiration time or after the max ttl, whichever comes first.
+     */
+    class TokenExpiry implements Expiry<ByteBuffer, Authentication> {
+
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Authentication authentication, long currentTime) {
+
+            Instant expiration = expiration(authentication.getAttributes().get(EXPIRATION));
+            if (expiration == null) {
+                return maxTtlNanos;
+            }
+
+            long remaining = Duration.between(Instant.now(), expiration).toNanos();
+            return Math.max(0, Math.min(remaining, maxTtlNanos));
+        }
+
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Authentication authentication, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, authentication, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(ByteBuffer key, Authentication authentication, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        private Instant expiration(Object exp) {
+
+            if (exp instanceof Date) {
+                return ((Date) exp).toInstant();
+            }
+            if (exp instanceof Instant) {
+                return (Instant) exp;
+            }
+            if (exp instanceof Number) {
+                return Instant.ofEpochSecond(((Number) exp).longValue());
+            }
+
+            return null;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.droidablebee.micronaut.rest.security;
+
+import jakarta.inject.Singleton;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Assigns a bit to every permission required by a route, so a set of permissions is a single long.
+ * Permissions not required by any route do not get a bit, granting them does not affect authorization.
+ */
+@Singleton
+public class PermissionBits {
+
+    /**
+     * Name of the authentication attribute with the bits of the permissions granted.
+     */
+    public static final String ATTRIBUTE = PermissionBits.class.getName() + ".granted";
+
+    /**
+     * Name of the authentication attribute with the bits of all the permissions registered when the granted bits were
+     * resolved. The granted bits say nothing about the permissions registered afterwards.
+     */
+    public static final String REGISTERED = PermissionBits.class.getName() + ".registered";
+
+    static final int MAX = Long.SIZE;
+
+    private final Map<String, Long> bits = new ConcurrentHashMap<>();
+    private volatile long registered;
+
+    /**
+     * Returns bits of the permissions required, registering the permissions not seen before.
+     * @throws IllegalStateException if there are more permissions than bits
+     */
+    synchronized long register(Collection<String> permissions) {
+
+        long mask = 0;
+        for (String permission : permissions) {
+            Long bit = bits.get(permission);
+            if (bit == null) {
+                if (bits.size() == MAX) {
+                    throw new IllegalStateException("More than " + MAX + " permissions required by routes");
+                }
+                bit = 1L << bits.size();
+                bits.put(permission, bit);
+                registered |= bit;
+            }
+            mask |= bit;
+        }
+
+        return mask;
+    }
+
+    /**
+     * Adds bits of the permissions granted, along with the bits registered so far, to the authentication attributes.
+     */
+    public void grant(Collection<String> permissions, Map<String, Object> attributes) {
+
+        //read before the granted bits, so every permission registered is resolved by of()
+        attributes.put(REGISTERED, registered);
+        attributes.put(ATTRIBUTE, of(permissions));
+    }
+
+    /**
+     * Returns bits of the permissions granted.
+     */
+    public long of(Collection<String> permissions) {
+
+        long mask = 0;
+        for (String permission : permissions) {
+            Long bit = bits.get(permission);
+            if (bit != null) {
+                mask |= bit;
+            }
+        }
+
+        return mask;
+    }
+}
@@ -0,0 +1,157 @@
+package com.droidablebee.micronaut.rest.security;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.annotation.Nullable;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.inject.ExecutableMethod;
+import io.micronaut.runtime.event.annotation.EventListener;
+import io.micronaut.runtime.server.event.ServerStartupEvent;
+import io.micronaut.security.annotation.Secured;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.rules.SecuredAnnotationRule;
+import io.micronaut.security.rules.SecurityRule;
+import io.micronaut.security.rules.SecurityRuleResult;
+import io.micronaut.web.router.MethodBasedRoute;
+import io.micronaut.web.router.MethodBasedRouteMatch;
+import io.micronaut.web.router.RouteMatch;
+import io.micronaut.web.router.Router;
+import jakarta.inject.Singleton;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Evaluates {@link Secured} of routes as a single mask check. The permissions required by every route are resolved
+ * into bits once, at startup, and the permissions granted by a token into bits once, when the token is validated
+ * (see {@link CachingTokenValidator}). Runs before {@link SecuredAnnotationRule}, which then sees routes not
+ * resolved by this rule only.
+ */
+@Singleton
+@Requires(property = PermissionSecurityRule.ENABLED, value = "true", defaultValue = "true")
+public class PermissionSecurityRule implements SecurityRule {
+
+    public static final String ENABLED = "person.security.permission-rule.enabled";
+
+    public static final int ORDER = SecuredAnnotationRule.ORDER - 100;
+
+    private static final Publisher<SecurityRuleResult> ALLOWED = Mono.just(SecurityRuleResult.ALLOWED);
+    private static final Publisher<SecurityRuleResult> REJECTED = Mono.just(SecurityRuleResult.REJECTED);
+    private static final Publisher<SecurityRuleResult> UNKNOWN = Mono.just(SecurityRuleResult.UNKNOWN);
+
+    /**
+     * Route not annotated with {@link Secured}.
+     */
+    private static final Requirement NONE = new Requirement(Kind.NONE, 0);
+
+    private final PermissionBits permissionBits;
+    private final Router router;
+    private final Map<ExecutableMethod<?, ?>, Requirement> requirements = new ConcurrentHashMap<>();
+
+    public PermissionSecurityRule(PermissionBits permissionBits, Router router) {
+        this.permissionBits = permissionBits;
+        this.router = router;
+    }
+
+    @EventListener
+    void onStartup(ServerStartupEvent event) {
+
+        router.uriRoutes()
+                .filter(MethodBasedRoute.class::isInstance)
+                .map(route -> ((MethodBasedRoute) route).getTargetMethod())
+                .forEach(handle -> requirement(handle.getExecutableMethod()));
+    }
+
+    @Override
+    public Publisher<SecurityRuleResult> check(HttpRequest<?> request, @Nullable RouteMatch<?> routeMatch, @Nullable Authentication authentication) {
+
+        if (!(routeMatch instanceof MethodBasedRouteMatch)) {
+            return UNKNOWN;
+        }
+
+        Requirement requirement = requirement(((MethodBasedRouteMatch<?, ?>) routeMatch).getExecutableMethod());
+        switch (requirement.kind) {
+            case ANONYMOUS:
+                return ALLOWED;
+            case DENY:
+                return REJECTED;
+            case AUTHENTICATED:
+                return authentication == null ? REJECTED : ALLOWED;
+            case PERMISSIONS:
+                return authentication != null && (granted(authentication, requirement.mask) & requirement.mask) != 0 ? ALLOWED : REJECTED;
+            default:
+                return UNKNOWN;
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    /**
+     * Returns bits of the permissions granted, computed by the token validator or from the roles otherwise.
+     * The bits computed by the token validator are stale if the route's permissions were registered afterwards,
+     * which happens to routes resolved lazily, on their first request.
+     */
+    private long granted(Authentication authentication, long required) {
+
+        Object granted = authentication.getAttributes().get(PermissionBits.ATTRIBUTE);
+        Object registered = authentication.getAttributes().get(PermissionBits.REGISTERED);
+        if (granted instanceof Long && registered instanceof Long && (required & ~(Long) registered) == 0) {
+            return (Long) granted;
+        }
+
+        return permissionBits.of(authentication.getRoles());
+    }
+
+    private Requirement requirement(ExecutableMethod<?, ?> method) {
+
+        return requirements.computeIfAbsent(method, this::resolve);
+    }
+
+    /**
+     * Method level annotation takes precedence over the class level one, same as with {@link SecuredAnnotationRule}.
+     */
+    private Requirement resolve(ExecutableMethod<?, ?> method) {
+
+        String[] values = method.stringValues(Secured.class);
+        if (values.length == 0) {
+            return NONE;
+        }
+
+        //any of the values listed is sufficient
+        List<String> permissions = new ArrayList<>(Arrays.asList(values));
+        if (permissions.contains(SecurityRule.IS_ANONYMOUS)) {
+            return new Requirement(Kind.ANONYMOUS, 0);
+        }
+        if (permissions.contains(SecurityRule.IS_AUTHENTICATED)) {
+            return new Requirement(Kind.AUTHENTICATED, 0);
+        }
+        permissions.remove(SecurityRule.DENY_ALL);
+        if (permissions.isEmpty()) {
+            return new Requirement(Kind.DENY, 0);
+        }
+
+        return new Requirement(Kind.PERMISSIONS, permissionBits.register(permissions));
+    }
+
+    enum Kind {
+        NONE, ANONYMOUS, AUTHENTICATED, DENY, PERMISSIONS
+    }
+
+    static class Requirement {
+
+        private final Kind kind;
+        private final long mask;
+
+        Requirement(Kind kind, long mask) {
+            this.kind = kind;
+            this.mask = mask;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.droidablebee.micronaut.rest.service;
+
+import java.util.List;
+
+/**
+ * Page of a keyset (cursor) based lookup.
+ * The next token is null when there are no more elements.
+ */
+public class CursorPage<T> {
+
+	private final List<T> content;
+	private final int size;
+	private final String next;
+
+	public CursorPage(List<T> content, int size, String next) {
+		this.content = content;
+		this.size = size;
+		this.next = next;
+	}
+
+	public List<T> getContent() {
+		return content;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public String getNext() {
+		return next;
+	}
+}
@@ -0,0 +1,189 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Group commit of concurrent saves and updates. Writes arriving within the wait window (or until the group is full)
+ * are applied by a single committer thread in one transaction with batched statements, every caller waits for
+ * the outcome of its own write. If the group fails as a whole its writes are retried one by one in their own
+ * transactions, so a failing write fails alone. A caller not getting the outcome within the commit timeout is
+ * rejected (503), its write may still be committed.
+ */
+@Singleton
+@Requires(property = GroupCommitPersonService.ENABLED, value = "true")
+public class GroupCommitPersonService {
+
+	public static final String ENABLED = "person.group-commit.enabled";
+
+	private static final Logger logger = LoggerFactory.getLogger(GroupCommitPersonService.class);
+
+	private final PersonService personService;
+	private final ObjectMapper objectMapper;
+	private final int maxGroupSize;
+	private final long maxWaitNanos;
+	private final long commitTimeoutNanos;
+	private final BlockingQueue<PersonWrite> queue;
+	private final DistributionSummary groupSize;
+	private final Thread committer;
+
+	private volatile boolean running = true;
+
+	public GroupCommitPersonService(PersonService personService,
+									ObjectMapper objectMapper,
+									MeterRegistry meterRegistry,
+									@Value("${person.group-commit.max-group-size:50}") int maxGroupSize,
+									@Value("${person.group-commit.max-wait:2ms}") Duration maxWait,
+									@Value("${person.group-commit.queue-size:1000}") int queueSize,
+									@Value("${person.group-commit.commit-timeout:5s}") Duration commitTimeout) {
+		this.personService = personService;
+		this.objectMapper = objectMapper;
+		this.maxGroupSize = maxGroupSize;
+		this.maxWaitNanos = maxWait.toNanos();
+		this.commitTimeoutNanos = commitTimeout.toNanos();
+		this.queue = new ArrayBlockingQueue<>(queueSize);
+		this.groupSize = DistributionSummary.builder("person.group-commit.size")
+				.description("Number of writes committed in one transaction")
+				.register(meterRegistry);
+
+		this.committer = new Thread(this::run, "person-group-commit");
+		this.committer.setDaemon(true);
+		this.committer.start();
+	}
+
+	/**
+	 * Saves new person within the next group commit.
+	 */
+	public Person save(Person person) {
+
+		return submit(new PersonWrite(null, null, person));
+	}
+
+	/**
+	 * Updates existing person within the next group commit, same contract as {@link PersonService#update(Long, Long, Person)}.
+	 */
+	public Person update(Long id, Long version, Person person) {
+
+		return submit(new PersonWrite(id, version, person));
+	}
+
+	private Person submit(PersonWrite write) {
+
+		if (!running || !queue.offer(write)) {
+			throw new RejectedExecutionException("Too many writes in progress");
+		}
+
+		return write.get(commitTimeoutNanos);
+	}
+
+	/**
+	 * Commits groups until closed. Any failure of a group fails the writes of that group only, if the committer
+	 * stops nevertheless no more writes are accepted and the writes waiting are rejected.
+	 */
+	private void run() {
+
+		try {
+			commitGroups();
+		} finally {
+			running = false;
+			List<PersonWrite> pending = new ArrayList<>();
+			queue.drainTo(pending);
+			pending.forEach(write -> write.completeExceptionally(new RejectedExecutionException("Group commit stopped")));
+		}
+	}
+
+	private void commitGroups() {
+
+		List<PersonWrite> group = new ArrayList<>(maxGroupSize);
+		while (running) {
+			try {
+				PersonWrite first = queue.poll(100, TimeUnit.MILLISECONDS);
+				if (first == null) {
+					continue;
+				}
+
+				group.add(first);
+				long deadline = System.nanoTime() + maxWaitNanos;
+				while (group.size() < maxGroupSize) {
+					PersonWrite next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+					if (next == null) {
+						break;
+					}
+					group.add(next);
+				}
+
+				commit(group);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				group.forEach(write -> write.completeExceptionally(new RejectedExecutionException("Group commit stopped")));
+				break;
+			} catch (Throwable e) {
+				//errors too, the writes completed already are not affected
+				logger.error("Group commit of {} writes failed", group.size(), e);
+				group.forEach(write -> write.completeExceptionally(e));
+			} finally {
+				group.clear();
+			}
+		}
+	}
+
+	private void commit(List<PersonWrite> group) {
+
+		groupSize.record(group.size());
+
+		List<PersonWrite> deferred = new ArrayList<>();
+		try {
+			for (PersonWrite write : group) {
+				//applied to a copy, the person received is retried as is if the group is rolled back
+				write.setEntity(objectMapper.convertValue(write.getPerson(), Person.class));
+			}
+			personService.applyAll(group);
+
+			for (PersonWrite write : group) {
+				if (write.isDeferred()) {
+					deferred.add(write);
+				} else {
+					write.complete();
+				}
+			}
+		} catch (RuntimeException e) {
+			logger.debug("Group commit of {} writes rolled back, applying them one by one", group.size(), e);
+			group.forEach(PersonWrite::reset);
+			deferred = group;
+		}
+
+		for (PersonWrite write : deferred) {
+			try {
+				write.applied(write.getId() == null ?
+						personService.save(write.getPerson()) :
+						personService.update(write.getId(), write.getVersion(), write.getPerson()));
+			} catch (RuntimeException e) {
+				write.failed(e);
+			}
+			write.complete();
+		}
+	}
+
+	@PreDestroy
+	void close() throws InterruptedException {
+
+		running = false;
+		committer.join(TimeUnit.SECONDS.toMillis(5));
+	}
+}
@@ -0,0 +1,25 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import io.micronaut.cache.interceptor.CacheKeyGenerator;
+import io.micronaut.cache.interceptor.ParametersKey;
+import io.micronaut.core.annotation.AnnotationMetadata;
+
+/**
+ * Uses person id as the cache key for both lookups by id and writes of the person,
+ * so writes invalidate the entry cached by the lookup.
+ */
+public class PersonCacheKeyGenerator implements CacheKeyGenerator {
+
+	@Override
+	public Object generateKey(AnnotationMetadata annotationMetadata, Object... params) {
+
+		Object key = params.length == 1 ? params[0] : null;
+		if (key instanceof Person) {
+			key = ((Person) key).getId();
+		}
+
+		//new person without id has nothing cached
+		return key == null ? ParametersKey.ZERO_ARG_KEY : key;
+	}
+}
@@ -0,0 +1,57 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the persons collection ordered by last name and id.
+ * Clients get it as an opaque token and pass it back to fetch the next page.
+ */
+public class PersonCursor {
+
+	private static final char SEPARATOR = ':';
+
+	private final Long id;
+	private final String lastName;
+
+	public PersonCursor(Long id, String lastName) {
+		this.id = id;
+		this.lastName = lastName;
+	}
+
+	public static PersonCursor of(Person person) {
+
+		return new PersonCursor(person.getId(), person.getLastName());
+	}
+
+	/**
+	 * Decodes token created by {@link #encode()}.
+	 * @throws IllegalArgumentException if the token is malformed
+	 */
+	public static PersonCursor decode(String token) {
+
+		String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+		int index = value.indexOf(SEPARATOR);
+		if (index < 1) {
+			throw new IllegalArgumentException("Invalid cursor: " + token);
+		}
+
+		return new PersonCursor(Long.valueOf(value.substring(0, index)), value.substring(index + 1));
+	}
+
+	public String encode() {
+
+		String value = id.toString() + SEPARATOR + lastName;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public String getLastName() {
+		return lastName;
+	}
+}
@@ -0,0 +1,92 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+
+import java.util.Date;
+
+/**
+ * Criteria of the person search. Only the non null values are applied, all of them have to match.
+ */
+public class PersonFilter {
+
+	private String lastName;
+	private Date dateOfBirthFrom;
+	private Date dateOfBirthBefore;
+	private Person.Gender gender;
+	private String city;
+	private String state;
+	private String zip;
+
+	/**
+	 * Prefix of the last name.
+	 */
+	public String getLastName() {
+		return lastName;
+	}
+
+	public void setLastName(String lastName) {
+		this.lastName = lastName;
+	}
+
+	/**
+	 * Earliest date of birth, inclusive.
+	 */
+	public Date getDateOfBirthFrom() {
+		return dateOfBirthFrom;
+	}
+
+	public void setDateOfBirthFrom(Date dateOfBirthFrom) {
+		this.dateOfBirthFrom = dateOfBirthFrom;
+	}
+
+	/**
+	 * Latest date of birth, exclusive.
+	 */
+	public Date getDateOfBirthBefore() {
+		return dateOfBirthBefore;
+	}
+
+	public void setDateOfBirthBefore(Date dateOfBirthBefore) {
+		this.dateOfBirthBefore = dateOfBirthBefore;
+	}
+
+	public Person.Gender getGender() {
+		return gender;
+	}
+
+	public void setGender(Person.Gender gender) {
+		this.gender = gender;
+	}
+
+	public String getCity() {
+		return city;
+	}
+
+	public void setCity(String city) {
+		this.city = city;
+	}
+
+	public String getState() {
+		return state;
+	}
+
+	public void setState(String state) {
+		this.state = state;
+	}
+
+	public String getZip() {
+		return zip;
+	}
+
+	public void setZip(String zip) {
+		this.zip = zip;
+	}
+
+	public boolean hasAddress() {
+		return city != null || state != null || zip != null;
+	}
+
+	public boolean isEmpty() {
+		return lastName == null && dateOfBirthFrom == null && dateOfBirthBefore == null && gender == null && !hasAddress();
+	}
+}
@@ -1,46 +1,417 @@
 package com.droidablebee.micronaut.rest.service;
 
 import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.domain.PersonSummary;
+import com.droidablebee.micronaut.rest.jdbc.ReplicaRouter;
+import com.droidablebee.micronaut.rest.management.MetricsFactory;
 import com.droidablebee.micronaut.rest.repository.PersonRepository;
+import com.droidablebee.micronaut.rest.repository.PersonSpecifications;
+import com.droidablebee.micronaut.rest.search.PersonsSavedEvent;
+import com.droidablebee.micronaut.rest.tracing.Traced;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.annotation.Timed;
+import io.micronaut.cache.annotation.CacheConfig;
+import io.micronaut.cache.annotation.CacheInvalidate;
+import io.micronaut.cache.CacheManager;
+import io.micronaut.cache.SyncCache;
+import io.micronaut.cache.annotation.Cacheable;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.context.event.ApplicationEventPublisher;
+import io.micronaut.data.jpa.repository.criteria.Specification;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
+import io.micronaut.data.model.Sort;
 import io.micronaut.transaction.annotation.ReadOnly;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
+import org.hibernate.CacheMode;
+import org.hibernate.Session;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
 
+import javax.persistence.EntityManager;
+import javax.persistence.OptimisticLockException;
 import javax.transaction.Transactional;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Singleton
 @Transactional
+@Traced
+@CacheConfig(cacheNames = PersonService.PERSON_CACHE, keyGenerator = PersonCacheKeyGenerator.class)
 public class PersonService {
 
+	public static final String PERSON_CACHE = "person";
+
+	private static final String ID = "id";
+
 	@Inject
 	PersonRepository repository;
 
+	@Inject
+	EntityManager entityManager;
+
+	@Inject
+	ApplicationEventPublisher<PersonsSavedEvent> eventPublisher;
+
+	@Inject
+	ObjectMapper objectMapper;
+
+	@Inject
+	CacheManager<?> cacheManager;
+
+	@Value("${" + ReplicaRouter.ENABLED + ":false}")
+	boolean replicaRouting;
+
+	/**
+	 * Pages person ids in the database first and then loads persons with addresses for that page only.
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "findAll"})
 	@ReadOnly
 	public Page<Person> findAll(Pageable pageable) {
-		
-		return repository.findAll(pageable);
+
+		readOnlyCache();
+		List<Long> ids = repository.findIds(pageable);
+		return Page.of(findAllWithAddresses(ids), pageable, repository.countPersons());
+	}
+
+	/**
+	 * Applies the writes of a group commit in one transaction, statements are sent in JDBC batches on flush.
+	 * Writes that can not be applied (person not found, different version) record their outcome without affecting
+	 * the others, any other failure rolls back the whole group. A person updated more than once is updated by
+	 * the first write only, the other writes are deferred. Only the persons updated are invalidated in the person
+	 * cache, persons inserted have nothing cached.
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "applyAll"})
+	public void applyAll(List<PersonWrite> writes) {
+
+		List<Long> ids = writes.stream()
+				.map(PersonWrite::getId)
+				.filter(Objects::nonNull)
+				.distinct()
+				.collect(Collectors.toList());
+		//persons to update are loaded with addresses in a single statement
+		Map<Long, Person> found = ids.isEmpty() ? Collections.emptyMap() : repository.findAllWithAddresses(ids).stream()
+				.collect(Collectors.toMap(Person::getId, Function.identity()));
+
+		Set<Long> updated = new HashSet<>();
+		List<Person> saved = new ArrayList<>(writes.size());
+		for (PersonWrite write : writes) {
+			Person person = write.getEntity();
+			if (write.getId() == null) {
+				Person inserted = repository.save(person);
+				saved.add(inserted);
+				write.applied(inserted);
+				continue;
+			}
+
+			Person existing = found.get(write.getId());
+			if (existing == null) {
+				write.applied(null);
+			} else if (!updated.add(existing.getId())) {
+				//the version checked by the next write has to be the version written by this group
+				continue;
+			} else if (write.getVersion() != null && !write.getVersion().equals(existing.getVersion())) {
+				updated.remove(existing.getId());
+				write.failed(new OptimisticLockException("Person " + write.getId() + " does not have version " + write.getVersion()));
+			} else {
+				copy(person, existing);
+				saved.add(existing);
+				write.applied(existing);
+			}
+		}
+		repository.flush();
+		SyncCache<?> cache = cacheManager.getCache(PERSON_CACHE);
+		updated.forEach(cache::invalidate);
+		eventPublisher.publishEvent(new PersonsSavedEvent(saved));
 	}
-	
+
+	/**
+	 * Reserves ids of new persons from the person sequence, the persons inserted with these ids keep them.
+	 * The ids are taken from the same pooled optimizer as the ids generated on insert.
+	 */
+	public List<Long> reserveIds(int count) {
+
+		SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+		IdentifierGenerator generator = session.getFactory().getMetamodel().entityPersister(Person.class).getIdentifierGenerator();
+
+		List<Long> ids = new ArrayList<>(count);
+		for (int i = 0; i < count; i++) {
+			ids.add((Long) generator.generate(session, null));
+		}
+
+		return ids;
+	}
+
+	/**
+	 * Inserts new persons with ids reserved by {@link #reserveIds(int)} in one transaction, skipping persons
+	 * inserted before, so persons of a journal replayed after a crash are inserted only once.
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "insertAll"})
+	@CacheInvalidate(all = true)
+	public List<Person> insertAll(List<Person> persons) {
+
+		Set<Long> existing = new HashSet<>(repository.findExistingIds(
+				persons.stream().map(Person::getId).collect(Collectors.toList())));
+
+		List<Person> inserted = new ArrayList<>(persons.size());
+		for (Person person : persons) {
+			if (!existing.contains(person.getId())) {
+				person.setIdAssigned(true);
+				inserted.add(repository.save(person));
+			}
+		}
+		repository.flush();
+		entityManager.clear();
+		eventPublisher.publishEvent(new PersonsSavedEvent(inserted));
+
+		return inserted;
+	}
+
+	/**
+	 * Pages persons matching the filter and then loads persons with addresses for that page only.
+	 * Address criteria are evaluated by an exists subquery, the addresses returned are not filtered.
+	 * Persons are ordered by id after the sort requested, if any, so the pages are stable.
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "search"})
 	@ReadOnly
+	public Page<Person> findAll(PersonFilter filter, Pageable pageable) {
+
+		readOnlyCache();
+		Sort sort = pageable.getSort();
+		if (sort.getOrderBy().stream().noneMatch(order -> order.getProperty().equals(ID))) {
+			pageable = Pageable.from(pageable.getNumber(), pageable.getSize(), sort.order(Sort.Order.asc(ID)));
+		}
+
+		Page<Person> page = repository.findAll(toSpecification(filter), pageable);
+		List<Long> ids = page.getContent().stream().map(Person::getId).collect(Collectors.toList());
+
+		return Page.of(findAllWithAddresses(ids), pageable, page.getTotalSize());
+	}
+
+	/**
+	 * Returns persons ordered by last name and id, starting right after the cursor provided (or from the beginning).
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "findAllAfter"})
+	@ReadOnly
+	public CursorPage<Person> findAll(PersonCursor after, int size) {
+
+		readOnlyCache();
+		Pageable pageable = Pageable.from(0, size);
+		List<Long> ids;
+		List<Person> persons;
+		do {
+			ids = after == null ?
+					repository.findIdsOrderByLastName(pageable) :
+					repository.findIdsOrderByLastNameAfter(after.getLastName(), after.getId(), pageable);
+			persons = findAllWithAddresses(ids);
+			//persons deleted after their ids were read are missing, a page of deleted persons only is read again
+		} while (persons.isEmpty() && ids.size() == size);
+
+		//a short page of ids is the last one, a short page of persons is not. The ids following the last person
+		//found are ids of deleted persons, so the next page starts right after that person
+		String next = ids.size() < size ? null : PersonCursor.of(persons.get(persons.size() - 1)).encode();
+
+		return new CursorPage<>(persons, size, next);
+	}
+
+	/**
+	 * Returns person with addresses, repeated lookups are served from the person cache.
+	 * The person returned is a detached copy shared by all the lookups, it is not to be modified.
+	 * Not read-only, so the person is read from the primary even if replicas are configured: a person read from
+	 * a lagging replica would be cached, and served stale, until the cache entry expires.
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "findOne"})
+	@Transactional
+	@Cacheable
 	public Person findOne(Long id) {
 
 		Optional<Person> person = repository.findById(id);
-		return person.isPresent() ? person.get() : null;
+		//the entity stays in this session, changes of the copy cached are neither flushed nor lazily loaded
+		return person.isPresent() ? objectMapper.convertValue(person.get(), Person.class) : null;
+	}
+
+	/**
+	 * Pages persons without addresses, using a projection of the person columns instead of managed entities.
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "findAllSummaries"})
+	@ReadOnly
+	public Page<PersonSummary> findAllSummaries(Pageable pageable) {
+
+		readOnlyCache();
+		return Page.of(repository.list(pageable), pageable, repository.countPersons());
+	}
+
+	/**
+	 * Returns person without addresses or null if the person does not exist.
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "findSummary"})
+	@ReadOnly
+	public PersonSummary findSummary(Long id) {
+
+		readOnlyCache();
+		return repository.queryById(id).orElse(null);
 	}
-	
+
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "save"})
+	@CacheInvalidate
 	public Person save(Person person) {
-		
-		return repository.saveAndFlush(person);
+
+		Person saved = repository.saveAndFlush(person);
+		eventPublisher.publishEvent(new PersonsSavedEvent(List.of(saved)));
+
+		return saved;
+	}
+
+	/**
+	 * Updates the existing person. Returns updated person or null if the person does not exist.
+	 * The person is loaded, usually from the second-level cache, and changed in place, so the flush executes a single
+	 * update statement checking the version loaded and the cache entry is updated rather than evicted.
+	 * Addresses are kept unless provided, an empty set of addresses removes them.
+	 * @param version version expected or null to update any version
+	 * @throws OptimisticLockException if the person has a different version
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "update"})
+	@CacheInvalidate(parameters = "id")
+	public Person update(Long id, Long version, Person person) {
+
+		Person found = repository.findById(id).orElse(null);
+		if (found == null) {
+			return null;
+		}
+		if (version != null && !version.equals(found.getVersion())) {
+			throw new OptimisticLockException("Person " + id + " does not have version " + version);
+		}
+
+		copy(person, found);
+		//a concurrent update of the same version is detected by the versioned update statement
+		repository.flush();
+		eventPublisher.publishEvent(new PersonsSavedEvent(List.of(found)));
+
+		return found;
 	}
 
-	public Person update(Person person) {
+	/**
+	 * Creates new or updates existing persons in one transaction. Statements are sent in JDBC batches on flush
+	 * and the persistence context is cleared afterwards, so memory does not grow with the number of calls.
+	 * Returns the persons saved in the order provided, null for a person to update that does not exist or does not
+	 * have the version provided. Addresses of a person to update are kept unless provided, as by {@link #update}.
+	 */
+	@Timed(value = MetricsFactory.PERSON_SERVICE, extraTags = {"method", "saveAll"})
+	@CacheInvalidate(all = true)
+	public List<Person> saveAll(List<Person> persons) {
 
-		Person updated = repository.update(person);
+		List<Long> ids = persons.stream()
+				.map(Person::getId)
+				.filter(Objects::nonNull)
+				.distinct()
+				.collect(Collectors.toList());
+		//persons to update are loaded with addresses in a single statement and changed in place, a detached person
+		//would be merged as a new person
+		Map<Long, Person> found = ids.isEmpty() ? Collections.emptyMap() : repository.findAllWithAddresses(ids).stream()
+				.collect(Collectors.toMap(Person::getId, Function.identity()));
+
+		List<Person> saved = new ArrayList<>(persons.size());
+		for (Person person : persons) {
+			if (person.getId() == null) {
+				saved.add(repository.save(person));
+				continue;
+			}
+
+			Person existing = found.get(person.getId());
+			if (existing == null || (person.getVersion() != null && !person.getVersion().equals(existing.getVersion()))) {
+				saved.add(null);
+				continue;
+			}
+
+			copy(person, existing);
+			saved.add(existing);
+		}
 		repository.flush();
+		entityManager.clear();
+		eventPublisher.publishEvent(new PersonsSavedEvent(saved.stream().filter(Objects::nonNull).collect(Collectors.toList())));
+
+		return saved;
+	}
+
+	/**
+	 * Copies the fields written by an update to the existing person, the same for single, group and bulk updates.
+	 * Addresses are kept unless provided.
+	 */
+	private void copy(Person person, Person existing) {
+
+		existing.setFirstName(person.getFirstName());
+		existing.setLastName(person.getLastName());
+		existing.setMiddleName(person.getMiddleName());
+		existing.setDateOfBirth(person.getDateOfBirth());
+		existing.setGender(person.getGender());
+		if (person.getAddresses() != null) {
+			existing.setAddresses(person.getAddresses());
+		}
+	}
+
+	/**
+	 * Read-only transactions are served by the replicas when routing is enabled, so what they read may be stale.
+	 * Their session still reads the second-level and query cache but does not fill them, a stale person cached
+	 * would be returned by findById on the primary, and cached by {@link #findOne}, until the entry expires.
+	 */
+	private void readOnlyCache() {
+
+		if (replicaRouting) {
+			entityManager.unwrap(Session.class).setCacheMode(CacheMode.GET);
+		}
+	}
+
+	private Specification<Person> toSpecification(PersonFilter filter) {
+
+		Specification<Person> specification = Specification.where(null);
+		if (filter.getLastName() != null) {
+			specification = specification.and(PersonSpecifications.lastNameStartsWith(filter.getLastName()));
+		}
+		if (filter.getDateOfBirthFrom() != null) {
+			specification = specification.and(PersonSpecifications.bornFrom(filter.getDateOfBirthFrom()));
+		}
+		if (filter.getDateOfBirthBefore() != null) {
+			specification = specification.and(PersonSpecifications.bornBefore(filter.getDateOfBirthBefore()));
+		}
+		if (filter.getGender() != null) {
+			specification = specification.and(PersonSpecifications.hasGender(filter.getGender()));
+		}
+		if (filter.hasAddress()) {
+			specification = specification.and(PersonSpecifications.hasAddress(filter.getCity(), filter.getState(), filter.getZip()));
+		}
+
+		return specification;
+	}
+
+	/**
+	 * Returns persons with addresses in the same order as the ids provided.
+	 */
+	List<Person> findAllWithAddresses(List<Long> ids) {
+
+		if (ids.isEmpty()) {
+			return Collections.emptyList();
+		}
+
+		Map<Long, Person> persons = repository.findAllWithAddresses(ids).stream()
+				.collect(Collectors.toMap(Person::getId, Function.identity()));
+
+		List<Person> ordered = new ArrayList<>(ids.size());
+		for (Long id : ids) {
+			Person person = persons.get(id);
+			if (person != null) {
+				ordered.add(person);
+			}
+		}
 
-		return updated;
+		return ordered;
 	}
 }
@@ -0,0 +1,120 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Save (no id) or update of a person waiting for its group commit. The outcome is recorded while the group is
+ * applied and handed to the caller only once the group is committed.
+ */
+public class PersonWrite {
+
+	private final Long id;
+	private final Long version;
+	private final Person person;
+	private final CompletableFuture<Person> future = new CompletableFuture<>();
+
+	private Person entity;
+	private boolean applied;
+	private Person result;
+	private RuntimeException failure;
+
+	PersonWrite(Long id, Long version, Person person) {
+		this.id = id;
+		this.version = version;
+		this.person = person;
+	}
+
+	public Long getId() {
+		return id;
+	}
+
+	public Long getVersion() {
+		return version;
+	}
+
+	/**
+	 * Person received from the caller.
+	 */
+	public Person getPerson() {
+		return person;
+	}
+
+	/**
+	 * Copy of the person applied by the group, so the person received is left intact if the group is rolled back.
+	 */
+	public Person getEntity() {
+		return entity;
+	}
+
+	void setEntity(Person entity) {
+		this.entity = entity;
+	}
+
+	/**
+	 * Records the person saved or updated, null if the person to update does not exist.
+	 */
+	public void applied(Person result) {
+		this.applied = true;
+		this.result = result;
+	}
+
+	/**
+	 * Records failure of this write only.
+	 */
+	public void failed(RuntimeException failure) {
+		this.applied = true;
+		this.failure = failure;
+	}
+
+	/**
+	 * Neither applied nor failed, e.g. the second update of the same person in one group.
+	 */
+	boolean isDeferred() {
+		return !applied;
+	}
+
+	void reset() {
+		applied = false;
+		result = null;
+		failure = null;
+	}
+
+	void complete() {
+
+		if (failure != null) {
+			future.completeExceptionally(failure);
+		} else {
+			future.complete(result);
+		}
+	}
+
+	void completeExceptionally(Throwable e) {
+		future.completeExceptionally(e);
+	}
+
+	/**
+	 * Waits for the group commit, but no longer than the timeout. Rethrows the failure of this write.
+	 * @throws RejectedExecutionException if the group is not committed in time
+	 */
+	Person get(long timeoutNanos) {
+
+		try {
+			return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+		} catch (ExecutionException e) {
+			throw e.getCause() instanceof RuntimeException ?
+					(RuntimeException) e.getCause() :
+					new IllegalStateException("Group commit failed", e.getCause());
+		} catch (TimeoutException e) {
+			throw new RejectedExecutionException("Group commit timed out");
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RejectedExecutionException("Interrupted while waiting for group commit");
+		}
+	}
+}
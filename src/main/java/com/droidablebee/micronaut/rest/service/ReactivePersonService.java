@@ -0,0 +1,52 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.executor.PersonExecutorFactory;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import jakarta.inject.Named;
+import jakarta.inject.Singleton;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Non-blocking facade of {@link PersonService}.
+ * JDBC calls are still blocking, they run on the bounded person executor
+ * so the caller's thread is released while the statements are executed.
+ */
+@Singleton
+@Requires(property = ReactivePersonService.ENABLED, value = "true")
+public class ReactivePersonService {
+
+	public static final String ENABLED = "person.reactive.enabled";
+
+	private final PersonService personService;
+	private final Scheduler scheduler;
+
+	ReactivePersonService(PersonService personService, @Named(PersonExecutorFactory.PERSON) ExecutorService executorService) {
+		this.personService = personService;
+		this.scheduler = Schedulers.fromExecutorService(executorService);
+	}
+
+	public Mono<Page<Person>> findAll(Pageable pageable) {
+
+		return Mono.fromCallable(() -> personService.findAll(pageable)).subscribeOn(scheduler);
+	}
+
+	/**
+	 * Returns empty mono if the person does not exist.
+	 */
+	public Mono<Person> findOne(Long id) {
+
+		return Mono.fromCallable(() -> personService.findOne(id)).subscribeOn(scheduler);
+	}
+
+	public Mono<Person> save(Person person) {
+
+		return Mono.fromCallable(() -> personService.save(person)).subscribeOn(scheduler);
+	}
+}
@@ -0,0 +1,188 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.journal.PersonJournal;
+import com.droidablebee.micronaut.rest.journal.PersonJournal.Records;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.scheduling.annotation.Scheduled;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.hibernate.exception.DataException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.validation.ConstraintViolationException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Write-behind mode of saving new persons. A person accepted is assigned an id from the person sequence and
+ * appended to the local journal, the caller is acknowledged as soon as the record is durable in the journal.
+ * The journal is drained in the background into the database in batches, one transaction per batch, and records
+ * not drained before a restart are drained after it. Persons are not readable until drained.
+ */
+@Singleton
+@Requires(property = WriteBehindPersonService.ENABLED, value = "true")
+public class WriteBehindPersonService {
+
+	public static final String ENABLED = "person.write-behind.enabled";
+
+	private static final Logger logger = LoggerFactory.getLogger(WriteBehindPersonService.class);
+
+	private final PersonService personService;
+	private final ObjectMapper objectMapper;
+	private final PersonJournal journal;
+	private final int batchSize;
+	private final Deque<Long> ids = new ArrayDeque<>();
+
+	public WriteBehindPersonService(PersonService personService,
+									ObjectMapper objectMapper,
+									@Value("${person.write-behind.file:build/journal/person.journal}") String file,
+									@Value("${person.write-behind.capacity:67108864}") int capacity,
+									@Value("${person.write-behind.force:true}") boolean force,
+									@Value("${person.write-behind.batch-size:500}") int batchSize) throws IOException {
+		this.personService = personService;
+		this.objectMapper = objectMapper;
+		this.journal = new PersonJournal(Path.of(file), capacity, force);
+		this.batchSize = batchSize;
+
+		if (journal.pending() > 0) {
+			logger.info("Replaying {} bytes of person journal {}", journal.pending(), file);
+		}
+	}
+
+	/**
+	 * Assigns id to the new person and appends the person to the journal. Returns the person with the id.
+	 * @throws java.util.concurrent.RejectedExecutionException if the journal is full
+	 */
+	public Person accept(Person person) {
+
+		person.setId(nextId());
+		try {
+			journal.append(objectMapper.writeValueAsBytes(person));
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+
+		return person;
+	}
+
+	/**
+	 * Drains the journal into the database, as long as there are full batches of persons.
+	 * Stops at a batch failing for any reason other than the persons themselves, without marking it drained,
+	 * so the batch is retried by the next run.
+	 */
+	@Scheduled(fixedDelay = "${person.write-behind.drain-interval:100ms}")
+	synchronized void drain() {
+
+		Records records;
+		do {
+			records = journal.read(batchSize);
+			if (records.getPayloads().isEmpty()) {
+				return;
+			}
+
+			if (!insert(records)) {
+				return;
+			}
+			journal.drained(records);
+		} while (records.getPayloads().size() == batchSize);
+	}
+
+	/**
+	 * Number of bytes accepted but not drained into the database yet.
+	 */
+	public int getPending() {
+		return journal.pending();
+	}
+
+	@PreDestroy
+	void close() throws IOException {
+
+		try {
+			drain();
+		} finally {
+			journal.close();
+		}
+	}
+
+	private synchronized Long nextId() {
+
+		if (ids.isEmpty()) {
+			ids.addAll(personService.reserveIds(batchSize));
+		}
+		return ids.poll();
+	}
+
+	/**
+	 * Inserts the batch in one transaction. A batch failing on a person (e.g. a constraint violation) is inserted
+	 * one by one, so that person does not hold the others back, and persons failing on their own are logged and
+	 * dropped. Returns false, with the batch applied partially or not at all, on any other failure.
+	 * Persons inserted before are skipped by the service, so a batch retried is inserted only once.
+	 */
+	private boolean insert(Records records) {
+
+		try {
+			personService.insertAll(persons(records));
+			return true;
+		} catch (RuntimeException e) {
+			if (!isPermanent(e)) {
+				logger.warn("Failed to drain person journal, retrying later", e);
+				return false;
+			}
+		}
+
+		//persons of the failed batch may have been modified by the rolled back transaction, start over from the records
+		for (Person person : persons(records)) {
+			try {
+				personService.insertAll(List.of(person));
+			} catch (RuntimeException e) {
+				if (!isPermanent(e)) {
+					logger.warn("Failed to drain person journal, retrying later", e);
+					return false;
+				}
+				logger.error("Dropping journaled person {} that can not be inserted", person.getId(), e);
+			}
+		}
+
+		return true;
+	}
+
+	private List<Person> persons(Records records) {
+
+		List<Person> persons = new ArrayList<>(records.getPayloads().size());
+		for (byte[] payload : records.getPayloads()) {
+			try {
+				persons.add(objectMapper.readValue(payload, Person.class));
+			} catch (IOException e) {
+				//written by a different version of the person, can not be applied
+				logger.error("Skipping unreadable journal record {}", new String(payload), e);
+			}
+		}
+
+		return persons;
+	}
+
+	/**
+	 * Failures caused by the person itself, which fail the same way however many times the person is inserted.
+	 */
+	private boolean isPermanent(Throwable failure) {
+
+		for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+			if (cause instanceof ConstraintViolationException ||
+					cause instanceof org.hibernate.exception.ConstraintViolationException ||
+					cause instanceof DataException) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+}
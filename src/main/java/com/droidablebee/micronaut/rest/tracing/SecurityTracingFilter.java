@@ -0,0 +1,39 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.filter.ServerFilterPhase;
+import org.reactivestreams.Publisher;
+
+/**
+ * Ends the security span started by {@link TracingFilter}, the request has been authenticated and authorized.
+ * Requests rejected by the security filter never get here, their security span ends with the request.
+ */
+@Filter(Filter.MATCH_ALL_PATTERN)
+@Requires(property = TracingFilter.ENABLED, value = "true", defaultValue = "true")
+public class SecurityTracingFilter implements HttpServerFilter {
+
+    private final Tracer tracer;
+
+    public SecurityTracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public int getOrder() {
+        return ServerFilterPhase.SECURITY.after();
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+
+        request.getAttribute(Tracer.TRACE, Trace.class)
+                .ifPresent(trace -> trace.end(TracingFilter.SECURITY));
+
+        return chain.proceed(request);
+    }
+}
@@ -0,0 +1,87 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Timed operation within a trace. Closing the span ends it, so spans are meant to be used with try-with-resources.
+ */
+public class Span implements AutoCloseable {
+
+    /**
+     * Span used outside of any trace, nothing is recorded.
+     */
+    static final Span NOOP = new Span(null, 0, null, 0, null);
+
+    private final Trace trace;
+    private final int id;
+    private final Integer parentId;
+    private final String name;
+    private final String thread;
+    private final long startNanos;
+    private long endNanos;
+    private Map<String, Object> tags;
+
+    Span(Trace trace, int id, String name, long startNanos, Integer parentId) {
+        this.trace = trace;
+        this.id = id;
+        this.parentId = parentId;
+        this.name = name;
+        this.thread = Thread.currentThread().getName();
+        this.startNanos = startNanos;
+    }
+
+    public Span tag(String key, Object value) {
+
+        if (trace != null) {
+            synchronized (this) {
+                if (tags == null) {
+                    tags = new LinkedHashMap<>();
+                }
+                tags.put(key, value);
+            }
+        }
+
+        return this;
+    }
+
+    @Override
+    public void close() {
+
+        if (trace != null) {
+            trace.end(this, System.nanoTime());
+        }
+    }
+
+    int getId() {
+        return id;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    boolean isEnded() {
+        return endNanos != 0;
+    }
+
+    void end(long endNanos) {
+        this.endNanos = endNanos;
+    }
+
+    synchronized Map<String, Object> toMap(long traceStartNanos) {
+
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("id", id);
+        values.put("parentId", parentId);
+        values.put("name", name);
+        values.put("thread", thread);
+        values.put("offsetMicros", (startNanos - traceStartNanos) / 1000);
+        values.put("durationMicros", endNanos == 0 ? null : (endNanos - startNanos) / 1000);
+        if (tags != null) {
+            values.put("tags", new LinkedHashMap<>(tags));
+        }
+
+        return values;
+    }
+}
@@ -0,0 +1,128 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Spans recorded while serving a single request.
+ * The request is processed by one thread at a time (event loop, executor, event loop), so spans started while
+ * another one is open are nested in it.
+ * At most {@code maxSpans} spans are recorded, the ones started afterwards are dropped and only counted, so that
+ * requests such as export or bulk create, which run millions of statements, do not hold all their spans in memory.
+ */
+public class Trace {
+
+    private final String id = UUID.randomUUID().toString();
+    private final String name;
+    private final Instant timestamp = Instant.now();
+    private final long startNanos = System.nanoTime();
+    private final List<Span> spans = new ArrayList<>();
+    private final Deque<Span> open = new ArrayDeque<>();
+    private final int maxSpans;
+    private int dropped;
+    private boolean finished;
+
+    Trace(String name, int maxSpans) {
+        this.name = name;
+        this.maxSpans = maxSpans;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    synchronized Span start(String name) {
+
+        return start(name, System.nanoTime());
+    }
+
+    synchronized Span start(String name, long startNanos) {
+
+        if (finished) {
+            return Span.NOOP;
+        }
+        if (spans.size() >= maxSpans) {
+            dropped++;
+            return Span.NOOP;
+        }
+
+        Span parent = open.peekLast();
+        Span span = new Span(this, spans.size() + 1, name, startNanos, parent == null ? null : parent.getId());
+        spans.add(span);
+        open.addLast(span);
+
+        return span;
+    }
+
+    /**
+     * Records span which has already ended, such as a statement timed by the jdbc driver.
+     */
+    synchronized Span record(String name, long startNanos, long endNanos) {
+
+        Span span = start(name, startNanos);
+        if (span != Span.NOOP) {
+            end(span, endNanos);
+        }
+
+        return span;
+    }
+
+    synchronized void end(Span span, long endNanos) {
+
+        if (span.isEnded()) {
+            return;
+        }
+        span.end(endNanos);
+        open.remove(span);
+    }
+
+    /**
+     * Ends the innermost open span of the name given, if any.
+     */
+    synchronized void end(String name) {
+
+        for (Span span : (Iterable<Span>) open::descendingIterator) {
+            if (span.getName().equals(name)) {
+                end(span, System.nanoTime());
+                return;
+            }
+        }
+    }
+
+    /**
+     * Ends all the spans still open, no spans are recorded afterwards.
+     */
+    synchronized void finish() {
+
+        long now = System.nanoTime();
+        while (!open.isEmpty()) {
+            open.peekLast().end(now);
+            open.removeLast();
+        }
+        finished = true;
+    }
+
+    synchronized Map<String, Object> toMap() {
+
+        List<Map<String, Object>> values = new ArrayList<>(spans.size());
+        for (Span span : spans) {
+            values.add(span.toMap(startNanos));
+        }
+
+        Map<String, Object> trace = new LinkedHashMap<>();
+        trace.put("id", id);
+        trace.put("name", name);
+        trace.put("timestamp", timestamp.toString());
+        trace.put("durationMicros", spans.isEmpty() ? 0 : values.get(0).get("durationMicros"));
+        trace.put("spans", values);
+        trace.put("droppedSpans", dropped);
+
+        return trace;
+    }
+}
@@ -0,0 +1,22 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import io.micronaut.aop.Around;
+import io.micronaut.context.annotation.Type;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Records span of every invocation of the method (or all the methods of the class) annotated,
+ * named by the class and method invoked.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.TYPE, ElementType.METHOD})
+@Around
+@Type(TracedInterceptor.class)
+public @interface Traced {
+}
@@ -0,0 +1,37 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import io.micronaut.aop.MethodInterceptor;
+import io.micronaut.aop.MethodInvocationContext;
+import io.micronaut.core.order.Ordered;
+import jakarta.inject.Singleton;
+
+/**
+ * Runs before the other interceptors, so the span of a service method includes its transaction and cache lookups.
+ */
+@Singleton
+public class TracedInterceptor implements MethodInterceptor<Object, Object> {
+
+    private final Tracer tracer;
+
+    public TracedInterceptor(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object intercept(MethodInvocationContext<Object, Object> context) {
+
+        try (Span span = tracer.start(context.getDeclaringType().getSimpleName() + "." + context.getMethodName())) {
+            try {
+                return context.proceed();
+            } catch (RuntimeException e) {
+                span.tag("exception", e.getClass().getName());
+                throw e;
+            }
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.BeanProvider;
+import io.micronaut.context.annotation.Value;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.context.ServerRequestContext;
+import jakarta.annotation.PreDestroy;
+import jakarta.inject.Singleton;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * In-process tracer of the requests served. The trace of the request is kept as a request attribute, so spans can be
+ * started from any code running on behalf of the request, on any thread the request context is propagated to.
+ * Finished traces are kept in a fixed size ring buffer and optionally appended to a file as json lines.
+ */
+@Singleton
+public class Tracer {
+
+    private static final Logger LOG = LoggerFactory.getLogger(Tracer.class);
+
+    static final String TRACE = Tracer.class.getName() + ".trace";
+
+    private final AtomicReferenceArray<Trace> traces;
+    private final AtomicLong position = new AtomicLong();
+    private final BeanProvider<ObjectMapper> objectMapper;
+    private final BufferedWriter writer;
+    private final int maxSpans;
+
+    public Tracer(@Value("${person.tracing.buffer-size:100}") int bufferSize,
+                  @Value("${person.tracing.max-spans:1000}") int maxSpans,
+                  @Value("${person.tracing.file:}") String file,
+                  BeanProvider<ObjectMapper> objectMapper) throws IOException {
+
+        this.traces = new AtomicReferenceArray<>(bufferSize);
+        this.maxSpans = maxSpans;
+        //the object mapper is traced itself, look it up when the first trace is written
+        this.objectMapper = objectMapper;
+        this.writer = file.isEmpty() ? null : Files.newBufferedWriter(Path.of(file), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Starts span in the trace of the current request. Returns a no-op span outside of a traced request.
+     */
+    public Span start(String name) {
+
+        Trace trace = current();
+        return trace == null ? Span.NOOP : trace.start(name);
+    }
+
+    /**
+     * Records span which has already ended, in the trace of the current request.
+     */
+    public Span record(String name, long startNanos, long endNanos) {
+
+        Trace trace = current();
+        return trace == null ? Span.NOOP : trace.record(name, startNanos, endNanos);
+    }
+
+    /**
+     * Returns the most recent traces, the latest first.
+     */
+    public List<Map<String, Object>> getTraces() {
+
+        List<Map<String, Object>> result = new ArrayList<>(traces.length());
+        long last = position.get();
+        for (long i = last - 1; i >= 0 && i >= last - traces.length(); i--) {
+            Trace trace = traces.get((int) (i % traces.length()));
+            if (trace != null) {
+                result.add(trace.toMap());
+            }
+        }
+
+        return result;
+    }
+
+    Trace begin(HttpRequest<?> request) {
+
+        Trace trace = new Trace(request.getMethodName() + " " + request.getPath(), maxSpans);
+        request.setAttribute(TRACE, trace);
+
+        return trace;
+    }
+
+    void finish(Trace trace) {
+
+        trace.finish();
+        traces.set((int) (position.getAndIncrement() % traces.length()), trace);
+
+        if (writer != null) {
+            write(trace);
+        }
+    }
+
+    Trace current() {
+
+        return ServerRequestContext.currentRequest()
+                .flatMap(request -> request.getAttribute(TRACE, Trace.class))
+                .orElse(null);
+    }
+
+    private void write(Trace trace) {
+
+        try {
+            String line = objectMapper.get().writeValueAsString(trace.toMap());
+            synchronized (writer) {
+                writer.write(line);
+                writer.newLine();
+                writer.flush();
+            }
+        } catch (IOException e) {
+            LOG.warn("Failed to write trace {}", trace.getId(), e);
+        }
+    }
+
+    @PreDestroy
+    void close() throws IOException {
+
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.core.async.publisher.Publishers;
+import io.micronaut.http.HttpAttributes;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.MutableHttpResponse;
+import io.micronaut.http.annotation.Filter;
+import io.micronaut.http.filter.HttpServerFilter;
+import io.micronaut.http.filter.ServerFilterChain;
+import io.micronaut.http.filter.ServerFilterPhase;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+
+/**
+ * Starts trace of every request along with the security span, which is ended by {@link SecurityTracingFilter}
+ * right after the security filter lets the request through.
+ */
+@Filter(Filter.MATCH_ALL_PATTERN)
+@Requires(property = TracingFilter.ENABLED, value = "true", defaultValue = "true")
+public class TracingFilter implements HttpServerFilter {
+
+    public static final String ENABLED = "person.tracing.enabled";
+
+    static final String REQUEST = "http.request";
+    static final String SECURITY = "security";
+
+    private final Tracer tracer;
+
+    public TracingFilter(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public int getOrder() {
+        return ServerFilterPhase.TRACING.order();
+    }
+
+    @Override
+    public Publisher<MutableHttpResponse<?>> doFilter(HttpRequest<?> request, ServerFilterChain chain) {
+
+        Trace trace = tracer.begin(request);
+        Span span = trace.start(REQUEST);
+        trace.start(SECURITY);
+
+        return Flux.from(chain.proceed(request))
+                .doOnNext(response -> {
+                    span.tag("status", response.code());
+                    request.getAttribute(HttpAttributes.URI_TEMPLATE, String.class)
+                            .ifPresent(route -> span.tag("route", route));
+                })
+                .doFinally(signal -> tracer.finish(trace));
+    }
+}
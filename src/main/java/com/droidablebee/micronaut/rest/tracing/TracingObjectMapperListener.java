@@ -0,0 +1,30 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.context.event.BeanCreatedEvent;
+import io.micronaut.context.event.BeanCreatedEventListener;
+import jakarta.inject.Singleton;
+
+/**
+ * Traces serialization done by the object mapper, which encodes json request and response bodies.
+ */
+@Singleton
+@Requires(property = TracingFilter.ENABLED, value = "true", defaultValue = "true")
+public class TracingObjectMapperListener implements BeanCreatedEventListener<ObjectMapper> {
+
+    private final Tracer tracer;
+
+    public TracingObjectMapperListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public ObjectMapper onCreated(BeanCreatedEvent<ObjectMapper> event) {
+
+        ObjectMapper objectMapper = event.getBean();
+        objectMapper.setSerializerProvider(new TracingSerializerProvider(tracer));
+
+        return objectMapper;
+    }
+}
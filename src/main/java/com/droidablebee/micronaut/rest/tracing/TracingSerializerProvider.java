@@ -0,0 +1,74 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
+
+import java.io.IOException;
+
+/**
+ * Records span of every root value serialized, such as a response body being encoded.
+ * Nested values are serialized by the root serializer and are not traced separately.
+ */
+class TracingSerializerProvider extends DefaultSerializerProvider {
+
+    static final String ENCODE = "encode";
+
+    private final Tracer tracer;
+
+    TracingSerializerProvider(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    private TracingSerializerProvider(TracingSerializerProvider src) {
+        super(src);
+        this.tracer = src.tracer;
+    }
+
+    private TracingSerializerProvider(TracingSerializerProvider src, SerializationConfig config, SerializerFactory factory) {
+        super(src, config, factory);
+        this.tracer = src.tracer;
+    }
+
+    @Override
+    public DefaultSerializerProvider copy() {
+        return new TracingSerializerProvider(this);
+    }
+
+    @Override
+    public DefaultSerializerProvider createInstance(SerializationConfig config, SerializerFactory factory) {
+        return new TracingSerializerProvider(this, config, factory);
+    }
+
+    @Override
+    public void serializeValue(JsonGenerator gen, Object value) throws IOException {
+
+        try (Span span = start(value)) {
+            super.serializeValue(gen, value);
+        }
+    }
+
+    @Override
+    public void serializeValue(JsonGenerator gen, Object value, JavaType rootType) throws IOException {
+
+        try (Span span = start(value)) {
+            super.serializeValue(gen, value, rootType);
+        }
+    }
+
+    @Override
+    public void serializeValue(JsonGenerator gen, Object value, JavaType rootType, JsonSerializer<Object> ser) throws IOException {
+
+        try (Span span = start(value)) {
+            super.serializeValue(gen, value, rootType, ser);
+        }
+    }
+
+    private Span start(Object value) {
+
+        return tracer.start(ENCODE).tag("type", value == null ? null : value.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,41 @@
+package com.droidablebee.micronaut.rest.tracing;
+
+import io.micronaut.context.annotation.Requires;
+import jakarta.inject.Singleton;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records span of every statement executed, tagged with the sql (without bind parameters).
+ */
+@Singleton
+@Requires(property = TracingFilter.ENABLED, value = "true", defaultValue = "true")
+public class TracingStatementListener implements QueryExecutionListener {
+
+    static final String JDBC = "jdbc";
+
+    private final Tracer tracer;
+
+    public TracingStatementListener(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+        long end = System.nanoTime();
+        Span span = tracer.record(JDBC, end - TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime()), end);
+        span.tag("sql", queryInfoList.size() == 1 ? queryInfoList.get(0).getQuery() : queryInfoList.size() + " statements");
+        if (execInfo.isBatch()) {
+            span.tag("batchSize", execInfo.getBatchSize());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.droidablebee.micronaut.rest.compression;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.repository.PersonRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.runtime.server.EmbeddedServer;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.token.generator.TokenGenerator;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_READ_PERMISSION;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Uses the jdk http client, which, unlike the micronaut one, does not decompress the responses.
+ */
+@MicronautTest
+class CompressionMetricsHandlerTest {
+
+    @Inject
+    EmbeddedServer server;
+
+    @Inject
+    TokenGenerator tokenGenerator;
+
+    @Inject
+    MeterRegistry registry;
+
+    @Inject
+    PersonRepository personRepository;
+
+    @BeforeEach
+    void beforeEach() {
+
+        List<Person> persons = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            persons.add(new Person("first" + i, "last" + i));
+        }
+        personRepository.saveAll(persons);
+    }
+
+    @AfterEach
+    void afterEach() {
+
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void exportGzip() throws Exception {
+
+        DistributionSummary encoded = summary("encoded");
+        DistributionSummary sent = summary("sent");
+        long encodedCount = encoded.count();
+        double encodedBytes = encoded.totalAmount();
+        long sentCount = sent.count();
+        double sentBytes = sent.totalAmount();
+
+        HttpRequest request = HttpRequest.newBuilder(server.getURI().resolve("/v1/person/export"))
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + generateToken())
+                .header(HttpHeaders.ACCEPT_ENCODING, "gzip")
+                .build();
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(200, response.statusCode());
+        assertEquals("gzip", response.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElse(null));
+        String body = gunzip(response.body());
+        assertThat(body, containsString("\"firstName\":\"first49\""));
+
+        //the response is recorded on both sides of the compressor, once it has been written
+        assertEquals(encodedCount + 1, encoded.count());
+        assertEquals(sentCount + 1, sent.count());
+        assertEquals(body.getBytes(StandardCharsets.UTF_8).length, encoded.totalAmount() - encodedBytes, 0);
+        assertEquals(response.body().length, sent.totalAmount() - sentBytes, 0);
+        assertThat(encoded.totalAmount() - encodedBytes, greaterThan(sent.totalAmount() - sentBytes));
+
+        Timer compression = registry.find(CompressionMetricsHandler.COMPRESSION).tag("encoding", "gzip").timer();
+        assertThat(compression.count(), greaterThan(0L));
+    }
+
+    private DistributionSummary summary(String stage) {
+
+        return DistributionSummary.builder(CompressionMetricsHandler.RESPONSE_SIZE)
+                .baseUnit("bytes")
+                .tag("stage", stage)
+                .register(registry);
+    }
+
+    private String gunzip(byte[] bytes) throws IOException {
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private String generateToken() {
+
+        return tokenGenerator.generateToken(Authentication.build("user", List.of(PERSON_READ_PERMISSION)), 3600).orElseThrow();
+    }
+}
@@ -0,0 +1,50 @@
+package com.droidablebee.micronaut.rest.compression;
+
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.netty.handler.codec.http.DefaultHttpResponse;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.HttpVersion;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest
+class ContentTypeCompressionStrategyTest {
+
+    @Inject
+    ContentTypeCompressionStrategy strategy;
+
+    @Test
+    public void shouldCompress() {
+
+        assertTrue(strategy.shouldCompress(response("application/json;charset=UTF-8", 2048)));
+        assertTrue(strategy.shouldCompress(response("text/plain", 1024)));
+        //streamed responses have no content length
+        assertTrue(strategy.shouldCompress(response("application/x-ndjson", -1)));
+    }
+
+    @Test
+    public void shouldNotCompress() {
+
+        assertFalse(strategy.shouldCompress(response("application/json", 1023)));
+        assertFalse(strategy.shouldCompress(response("application/cbor", 2048)));
+        assertFalse(strategy.shouldCompress(response("image/png", 2048)));
+        assertFalse(strategy.shouldCompress(response(null, 2048)));
+    }
+
+    private HttpResponse response(String contentType, int contentLength) {
+
+        HttpResponse response = new DefaultHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK);
+        if (contentType != null) {
+            response.headers().set(HttpHeaderNames.CONTENT_TYPE, contentType);
+        }
+        if (contentLength != -1) {
+            response.headers().setInt(HttpHeaderNames.CONTENT_LENGTH, contentLength);
+        }
+        return response;
+    }
+}
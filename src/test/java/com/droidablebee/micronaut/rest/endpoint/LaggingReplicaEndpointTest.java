@@ -0,0 +1,135 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.jdbc.ReplicaRouter;
+import com.droidablebee.micronaut.rest.repository.PersonRepository;
+import com.droidablebee.micronaut.rest.service.PersonService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.data.model.Page;
+import io.micronaut.data.model.Pageable;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.sql.DataSource;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The replica is a separate in-memory database holding a copy of the primary taken by the test, so it lags behind
+ * the primary by every write made after the copy. The lag tolerated is large enough to keep reading from it.
+ */
+@MicronautTest(transactional = false)
+@Property(name = ReplicaRouter.ENABLED, value = "true")
+@Property(name = "person.datasource.routing.replica-urls", value = LaggingReplicaEndpointTest.REPLICA_URL)
+@Property(name = "person.datasource.routing.heartbeat-interval", value = "50ms")
+@Property(name = "person.datasource.routing.max-lag", value = "1h")
+class LaggingReplicaEndpointTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:replicaDb;DB_CLOSE_DELAY=-1";
+
+    @TempDir
+    Path directory;
+
+    @Inject
+    ReplicaRouter router;
+
+    @Inject
+    PersonService personService;
+
+    @Inject
+    PersonRepository personRepository;
+
+    @Inject
+    DataSource dataSource;
+
+    @Inject
+    SessionFactory sessionFactory;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+
+        //the copy has to include the heartbeat table, created by the first heartbeat
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!hasHeartbeatTable() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(hasHeartbeatTable());
+    }
+
+    @AfterEach
+    void afterEach() {
+
+        personRepository.deleteAll();
+    }
+
+    /**
+     * A person read from the lagging replica is not put into the second-level cache, findOne reads it from
+     * the primary instead of returning the stale person, and caching it.
+     */
+    @Test
+    public void staleReadsAreNotCached() throws Exception {
+
+        Person person = personService.save(new Person("Jack", "Bauer"));
+        copyToReplica();
+        personService.update(person.getId(), null, new Person("Jack", "Sawyer"));
+        //the person is not in the second-level cache anymore, as once its entry expired or was evicted
+        sessionFactory.getCache().evictAllRegions();
+
+        long connections = replica().getConnections();
+        Page<Person> page = personService.findAll(Pageable.from(0, 10));
+        assertEquals(connections + 1, replica().getConnections());
+        assertEquals("Bauer", page.getContent().get(0).getLastName());
+        assertFalse(sessionFactory.getCache().contains(Person.class, person.getId()));
+
+        assertEquals("Sawyer", personService.findOne(person.getId()).getLastName());
+    }
+
+    /**
+     * Copies the primary into the replica and waits until the replica is healthy.
+     */
+    private void copyToReplica() throws Exception {
+
+        Path script = directory.resolve("primary.sql");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("script to '" + script + "'");
+        }
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "sa", ""); Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+            statement.execute("runscript from '" + script + "'");
+        }
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!replica().isHealthy() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(replica().isHealthy());
+    }
+
+    private boolean hasHeartbeatTable() throws SQLException {
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("select count(*) from information_schema.tables where table_name = 'REPLICA_HEARTBEAT'")) {
+            resultSet.next();
+            return resultSet.getInt(1) > 0;
+        }
+    }
+
+    private ReplicaRouter.Replica replica() {
+
+        return router.getReplicas().get(0);
+    }
+}
@@ -1,5 +1,7 @@
 package com.droidablebee.micronaut.rest.endpoint;
 
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.service.PersonService;
 import com.jayway.jsonpath.Configuration;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.Option;
@@ -10,23 +12,30 @@ import io.micronaut.http.HttpStatus;
 import io.micronaut.http.MediaType;
 import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
 import net.minidev.json.JSONArray;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
 
+import javax.persistence.EntityManager;
 import java.util.List;
 
 import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITHOUT_ROLES;
 import static io.micronaut.http.HttpRequest.GET;
 import static io.micronaut.http.HttpRequest.POST;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isA;
 import static org.hamcrest.Matchers.nullValue;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -36,6 +45,12 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 @MicronautTest
 class ManagementEndpointTest extends BaseEndpointTest {
 
+    @Inject
+    PersonService personService;
+
+    @Inject
+    EntityManager entityManager;
+
     /**
      * https://docs.micronaut.io/latest/guide/#infoEndpoint
      */
@@ -173,6 +188,237 @@ class ManagementEndpointTest extends BaseEndpointTest {
         assertThat(ctx.read("$.packages.size()"), greaterThan(1));
     }
 
+    /**
+     * https://micronaut-projects.github.io/micronaut-cache/latest/guide/#endpoint
+     */
+    @Test
+    void getCaches() {
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/caches"),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+    }
+
+    @Test
+    void getCachesAuthorized() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITHOUT_ROLES));
+
+        ReadContext before = getPersonCache(refreshToken);
+        assertThat(before.read("$"), isA(Object.class));
+
+        Person person = personService.save(new Person("Jack", "Bauer"));
+        //miss, then hit
+        Person found = personService.findOne(person.getId());
+        assertSame(found, personService.findOne(person.getId()));
+        assertFalse(entityManager.contains(found));
+
+        ReadContext after = getPersonCache(refreshToken);
+        assertThat(count(after, "$..missCount"), greaterThan(count(before, "$..missCount")));
+        assertThat(count(after, "$..hitCount"), greaterThan(count(before, "$..hitCount")));
+    }
+
+    private ReadContext getPersonCache(BearerAccessRefreshToken refreshToken) {
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/caches/" + PersonService.PERSON_CACHE).bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertTrue(response.getContentType().isPresent());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getContentType().get());
+
+        return JsonPath.parse(response.body());
+    }
+
+    private long count(ReadContext ctx, String path) {
+
+        JSONArray counts = ctx.read(path);
+        assertFalse(counts.isEmpty(), path);
+        return ((Number) counts.get(0)).longValue();
+    }
+
+    @Test
+    void getHibernate() {
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/hibernate"),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+    }
+
+    @Test
+    void getHibernateAuthorized() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITHOUT_ROLES));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/hibernate").bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertTrue(response.getContentType().isPresent());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getContentType().get());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+
+        assertThat(ctx.read("$.statisticsEnabled"), is(true));
+        assertThat(ctx.read("$.secondLevelCache.hitRatio"), isA(Number.class));
+        assertThat(ctx.read("$.queryCache.hitRatio"), isA(Number.class));
+        assertThat(ctx.read("$.regions"), isA(Object.class));
+    }
+
+    /**
+     * https://micronaut-projects.github.io/micronaut-micrometer/latest/guide/#metricsEndpoint
+     */
+    @Test
+    void getMetrics() {
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/metrics"),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+    }
+
+    @Test
+    void getMetricsAuthorized() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITHOUT_ROLES));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/metrics").bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertTrue(response.getContentType().isPresent());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getContentType().get());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+
+        assertThat(ctx.read("$.names"), isA(JSONArray.class));
+        assertThat(ctx.read("$.names"), hasItems("jvm.gc.memory.allocated", "hikaricp.connections.pending", "hibernate.query.executions"));
+    }
+
+    @Test
+    void getPrometheus() {
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/prometheus"),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+    }
+
+    @Test
+    void getPrometheusAuthorized() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITHOUT_ROLES));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/prometheus").bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertThat(response.body(), containsString("hikaricp_connections_active"));
+        assertThat(response.body(), containsString("jvm_gc_memory_allocated_bytes_total"));
+    }
+
+    @Test
+    void getStatements() {
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/statements"),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+    }
+
+    @Test
+    void getStatementsAuthorized() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITHOUT_ROLES));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/statements").bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertTrue(response.getContentType().isPresent());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getContentType().get());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+
+        assertThat(ctx.read("$.routes"), isA(Object.class));
+        assertThat(ctx.read("$.flaggedRequests"), isA(JSONArray.class));
+        assertThat(ctx.read("$.slowQueries"), isA(JSONArray.class));
+    }
+
+    @Test
+    void getTraces() {
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/traces"),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+    }
+
+    @Test
+    void getTracesAuthorized() throws Exception {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITHOUT_ROLES));
+
+        //the login trace is finished once its response is written, which may happen after the client has read it
+        String login = "$[?(@.name == 'POST /login')]";
+        long deadline = System.currentTimeMillis() + 5000;
+        HttpResponse<String> response;
+        ReadContext ctx;
+        do {
+            Thread.sleep(20);
+            response = client.toBlocking().exchange(
+                    GET("/management/traces").bearerAuth(refreshToken.getAccessToken()),
+                    Argument.of(String.class),
+                    Argument.of(String.class)
+            );
+            assertEquals(HttpStatus.OK, response.getStatus());
+            ctx = JsonPath.parse(response.body());
+        } while (ctx.read(login, List.class).isEmpty() && System.currentTimeMillis() < deadline);
+
+        assertTrue(response.getContentType().isPresent());
+        assertEquals(MediaType.APPLICATION_JSON_TYPE, response.getContentType().get());
+
+        assertThat(ctx.read(login + ".spans[0].name"), hasItem("http.request"));
+        assertThat(ctx.read(login + ".spans[0].tags.status"), hasItem(200));
+        assertThat(ctx.read(login + ".spans[1].name"), hasItem("security"));
+        assertThat(ctx.read(login + ".droppedSpans"), hasItem(0));
+    }
+
 //    @Test
 //     void getCustom() throws Exception {
 //
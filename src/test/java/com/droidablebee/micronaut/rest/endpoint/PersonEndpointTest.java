@@ -1,14 +1,19 @@
 package com.droidablebee.micronaut.rest.endpoint;
 
+import com.droidablebee.micronaut.rest.codec.CborMediaTypeCodec;
+import com.droidablebee.micronaut.rest.domain.Address;
 import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.jdbc.StatementFilter;
 import com.droidablebee.micronaut.rest.repository.PersonRepository;
 import com.droidablebee.micronaut.rest.service.PersonService;
 import com.jayway.jsonpath.JsonPath;
 import com.jayway.jsonpath.ReadContext;
+import io.micronaut.context.annotation.Property;
 import io.micronaut.core.type.Argument;
 import io.micronaut.data.model.Page;
 import io.micronaut.data.model.Pageable;
 import io.micronaut.data.runtime.config.DataConfiguration.PageableConfiguration;
+import io.micronaut.http.HttpHeaders;
 import io.micronaut.http.HttpRequest;
 import io.micronaut.http.HttpResponse;
 import io.micronaut.http.HttpStatus;
@@ -17,17 +22,30 @@ import io.micronaut.http.uri.UriBuilder;
 import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
+import org.hibernate.SessionFactory;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
 
 import javax.persistence.EntityManager;
 import java.net.URI;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_BATCH;
 import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_BY_ID;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_CURSOR;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_EXPORT;
 import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITHOUT_ROLES;
 import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITH_READ_ROLE;
 import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITH_WRITE_ROLE;
@@ -39,10 +57,13 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.isA;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @MicronautTest
+@Property(name = "person.statements.header", value = "true")
 class PersonEndpointTest extends BaseEndpointTest {
 
     @Inject
@@ -54,6 +75,9 @@ class PersonEndpointTest extends BaseEndpointTest {
     @Inject
     PersonRepository personRepository;
 
+    @Inject
+    CborMediaTypeCodec cborMediaTypeCodec;
+
     private Person testPerson;
     private long timestamp;
 
@@ -104,6 +128,23 @@ class PersonEndpointTest extends BaseEndpointTest {
         assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
     }
 
+    @Test
+    void getPersonByIdUnauthorizedInvalidToken() {
+
+        BearerAccessRefreshToken token = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+        String accessToken = token.getAccessToken();
+        String tampered = accessToken.substring(0, accessToken.length() - 2) + (accessToken.endsWith("AA") ? "BB" : "AA");
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, testPerson.getId()));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(tampered),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.UNAUTHORIZED, response.getStatus());
+    }
+
     @Test
     void getPersonByIdUnauthorizedNoToken() {
 
@@ -163,6 +204,146 @@ class PersonEndpointTest extends BaseEndpointTest {
         assertThat(ctx.read("$.dateOfBirth"), isA(Number.class));
     }
 
+    @Test
+    void getPersonByIdNotModified() {
+
+        Long id = testPerson.getId();
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, id));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        String etag = response.header(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertEquals(HttpHeaders.ACCEPT, response.header(HttpHeaders.VARY));
+
+        response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()).header(HttpHeaders.IF_NONE_MATCH, etag),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatus());
+        assertEquals(etag, response.header(HttpHeaders.ETAG));
+        assertEquals(HttpHeaders.ACCEPT, response.header(HttpHeaders.VARY));
+
+        response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()).header(HttpHeaders.IF_NONE_MATCH, "\"other\""),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(etag, response.header(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void getPersonByIdCbor() {
+
+        Long id = testPerson.getId();
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, id));
+        HttpResponse<byte[]> response = client.toBlocking().exchange(
+                GET(uri).accept(CborMediaTypeCodec.APPLICATION_CBOR_TYPE).bearerAuth(refreshToken.getAccessToken()),
+                byte[].class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(CborMediaTypeCodec.APPLICATION_CBOR_TYPE, response.getContentType().orElseThrow());
+        assertEquals(ETags.of(testPerson, CborMediaTypeCodec.APPLICATION_CBOR_TYPE), response.header(HttpHeaders.ETAG));
+        assertEquals(HttpHeaders.ACCEPT, response.header(HttpHeaders.VARY));
+
+        Person person = cborMediaTypeCodec.decode(Person.class, response.body());
+        assertEquals(id, person.getId());
+        assertEquals(testPerson.getFirstName(), person.getFirstName());
+        assertEquals(testPerson.getLastName(), person.getLastName());
+    }
+
+    /**
+     * The json etag does not match the cbor representation, nor the other way around.
+     */
+    @Test
+    void getPersonByIdCborNotModified() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, testPerson.getId()));
+        String json = ETags.of(testPerson);
+        String cbor = ETags.of(testPerson, CborMediaTypeCodec.APPLICATION_CBOR_TYPE);
+        assertNotEquals(json, cbor);
+
+        HttpResponse<byte[]> response = client.toBlocking().exchange(
+                GET(uri).accept(CborMediaTypeCodec.APPLICATION_CBOR_TYPE).bearerAuth(refreshToken.getAccessToken())
+                        .header(HttpHeaders.IF_NONE_MATCH, json),
+                byte[].class
+        );
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(cbor, response.header(HttpHeaders.ETAG));
+
+        response = client.toBlocking().exchange(
+                GET(uri).accept(CborMediaTypeCodec.APPLICATION_CBOR_TYPE).bearerAuth(refreshToken.getAccessToken())
+                        .header(HttpHeaders.IF_NONE_MATCH, cbor),
+                byte[].class
+        );
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatus());
+
+        response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()).header(HttpHeaders.IF_NONE_MATCH, cbor),
+                byte[].class
+        );
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(json, response.header(HttpHeaders.ETAG));
+    }
+
+    /**
+     * Cbor is returned only when listed explicitly and not ranked lower than json.
+     */
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "*/*|application/json",
+            "application/*|application/json",
+            "application/json, application/cbor|application/cbor",
+            "application/json, application/cbor;q=0.5|application/json",
+            "application/cbor;q=0.5, */*|application/json",
+            "application/cbor;q=0.5, */*;q=0.1|application/cbor"
+    })
+    void getPersonByIdAccept(String accept, String contentType) {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, testPerson.getId()));
+        HttpResponse<byte[]> response = client.toBlocking().exchange(
+                GET(uri).header(HttpHeaders.ACCEPT, accept).bearerAuth(refreshToken.getAccessToken()),
+                byte[].class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(MediaType.of(contentType), response.getContentType().orElseThrow());
+    }
+
+    @Test
+    void getPersonByIdNotFound() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, Long.MAX_VALUE));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+    }
+
     @Test
     void getAllWithDefaultPageAndSize() {
 
@@ -232,6 +413,328 @@ class PersonEndpointTest extends BaseEndpointTest {
         assertPage(JsonPath.parse(response.body()), pageable, pageable.getSize(), persons);
     }
 
+    @Test
+    void getAllWithAddressesCountsPersonsOnly() {
+
+        Person person = createPerson("Tony", "Almeida");
+        person.addAddress(new Address("line1", "city", "state", "zip"));
+        person.addAddress(new Address("line2", "city", "state", "zip"));
+        personService.save(person);
+
+        Pageable pageable = Pageable.from(0, 10);
+        Page<Person> persons = personService.findAll(pageable);
+        assertEquals(6L, persons.getTotalSize());
+        assertEquals(6, persons.getNumberOfElements());
+
+        Person found = persons.getContent().stream()
+                .filter(p -> p.getId().equals(person.getId()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(2, found.getAddresses().size());
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON)
+                .queryParam(PageableConfiguration.DEFAULT_SIZE_PARAMETER, 2)
+                .build();
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.content.size()"), is(2));
+        assertThat(ctx.read("$.totalSize"), is(6));
+        assertThat(ctx.read("$.totalPages"), is(3));
+    }
+
+    /**
+     * Persons and addresses of the page are fetched with constant number of statements regardless of the page size:
+     * page of ids, persons with addresses and count.
+     */
+    @Test
+    void getAllWithAddressesStatementCount() {
+
+        for (int i = 0; i < 10; i++) {
+            Person person = createPerson("first" + i, "last" + i);
+            person.addAddress(new Address("line1", "city", "state", "zip"));
+            person.addAddress(new Address("line2", "city", "state", "zip"));
+            personService.save(person);
+        }
+        entityManager.clear();
+        evictSecondLevelCache();
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON)
+                .queryParam(PageableConfiguration.DEFAULT_SIZE_PARAMETER, 15)
+                .build();
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertThat(JsonPath.parse(response.body()).read("$.content.size()"), is(15));
+        assertThat(statementCount(response), is(3));
+    }
+
+    @Test
+    void getPersonByIdStatementCount() {
+
+        Person person = createPerson("Tony", "Almeida");
+        person.addAddress(new Address("line1", "city", "state", "zip"));
+        person.addAddress(new Address("line2", "city", "state", "zip"));
+        personService.save(person);
+        evictSecondLevelCache();
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, person.getId()));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertThat(JsonPath.parse(response.body()).read("$.addresses.size()"), is(2));
+        //person and addresses are loaded with a single join
+        assertThat(statementCount(response), is(1));
+    }
+
+    @Test
+    void getPersonByIdWithFields() {
+
+        Person person = createPerson("Tony", "Almeida");
+        person.addAddress(new Address("line1", "city", "state", "zip"));
+        personService.save(person);
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID)
+                .queryParam(PersonEndpoint.FIELDS, "id,firstName,lastName")
+                .expand(singletonMap(PersonEndpoint.ID, person.getId()));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        String etag = response.header(HttpHeaders.ETAG);
+        //the fields are part of the etag, not only the version
+        assertEquals(person.getVersion(), ETags.version(etag));
+        assertNotEquals(ETags.of(person), etag);
+        assertEquals(HttpHeaders.ACCEPT, response.header(HttpHeaders.VARY));
+
+        Map<String, Object> body = JsonPath.parse(response.body()).read("$");
+        assertEquals(List.of("id", "firstName", "lastName"), new ArrayList<>(body.keySet()));
+        assertThat(body.get("firstName"), is("Tony"));
+        //person columns only, addresses are not joined
+        assertThat(statementCount(response), is(1));
+
+        uri = UriBuilder.of(PERSON_BY_ID)
+                .queryParam(PersonEndpoint.FIELDS, "id,addresses")
+                .expand(singletonMap(PersonEndpoint.ID, person.getId()));
+        response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertNotEquals(etag, response.header(HttpHeaders.ETAG));
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.id"), is(person.getId().intValue()));
+        assertThat(ctx.read("$.addresses.size()"), is(1));
+
+        //the same fields in another order are the same representation
+        uri = UriBuilder.of(PERSON_BY_ID)
+                .queryParam(PersonEndpoint.FIELDS, "lastName,id,firstName")
+                .expand(singletonMap(PersonEndpoint.ID, person.getId()));
+        response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()).header(HttpHeaders.IF_NONE_MATCH, etag),
+                String.class
+        );
+
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatus());
+    }
+
+    @Test
+    void getAllWithFields() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON)
+                .queryParam(PersonEndpoint.FIELDS, "lastName,id")
+                .build();
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(HttpHeaders.ACCEPT, response.header(HttpHeaders.VARY));
+
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.content.size()"), is(5));
+        assertThat(ctx.read("$.totalSize"), is(5));
+        Map<String, Object> person = ctx.read("$.content[0]");
+        assertEquals(List.of("id", "lastName"), new ArrayList<>(person.keySet()));
+    }
+
+    @Test
+    void getAllWithUnknownField() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON)
+                .queryParam(PersonEndpoint.FIELDS, "id,password")
+                .build();
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatus());
+    }
+
+    @Test
+    void getAllWithFilters() {
+
+        for (int i = 0; i < 5; i++) {
+            Person person = createPerson("first" + i, "Almeida" + i);
+            person.addAddress(new Address("line1", "Los Angeles", "CA", "9000" + i));
+            person.addAddress(new Address("line2", "Washington", "DC", "20500"));
+            personService.save(person);
+        }
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON)
+                .queryParam(PersonEndpoint.LAST_NAME, "Bau")
+                .build();
+        ReadContext ctx = JsonPath.parse(getAndAssertOk(uri, refreshToken).body());
+        assertThat(ctx.read("$.totalSize"), is(2));
+        assertThat(ctx.read("$.content[0].lastName"), is("Bauer"));
+
+        uri = UriBuilder.of(PERSON)
+                .queryParam(PersonEndpoint.CITY, "Los Angeles")
+                .queryParam(PersonEndpoint.ZIP, "90003")
+                .build();
+        HttpResponse<String> response = getAndAssertOk(uri, refreshToken);
+        ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.totalSize"), is(1));
+        assertThat(ctx.read("$.content[0].lastName"), is("Almeida3"));
+        //all the addresses of the person matched are returned
+        assertThat(ctx.read("$.content[0].addresses.size()"), is(2));
+        //page, count and persons with addresses
+        assertThat(statementCount(response), is(3));
+
+        //the same address has to match all the address criteria
+        uri = UriBuilder.of(PERSON)
+                .queryParam(PersonEndpoint.CITY, "Washington")
+                .queryParam(PersonEndpoint.ZIP, "90003")
+                .build();
+        assertThat(JsonPath.parse(getAndAssertOk(uri, refreshToken).body()).read("$.totalSize"), is(0));
+
+        String today = LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC).toString();
+        uri = UriBuilder.of(PERSON)
+                .queryParam(PersonEndpoint.DATE_OF_BIRTH_FROM, today)
+                .queryParam(PersonEndpoint.DATE_OF_BIRTH_TO, today)
+                .queryParam(PersonEndpoint.STATE, "CA")
+                .queryParam(PersonEndpoint.FIELDS, "id,lastName")
+                .build();
+        ctx = JsonPath.parse(getAndAssertOk(uri, refreshToken).body());
+        assertThat(ctx.read("$.totalSize"), is(5));
+        Map<String, Object> person = ctx.read("$.content[0]");
+        assertEquals(List.of("id", "lastName"), new ArrayList<>(person.keySet()));
+
+        uri = UriBuilder.of(PERSON)
+                .queryParam(PersonEndpoint.DATE_OF_BIRTH_TO, LocalDate.ofInstant(Instant.ofEpochMilli(timestamp), ZoneOffset.UTC).minusDays(1).toString())
+                .build();
+        assertThat(JsonPath.parse(getAndAssertOk(uri, refreshToken).body()).read("$.totalSize"), is(0));
+
+        uri = UriBuilder.of(PERSON)
+                .queryParam(PersonEndpoint.GENDER, Person.Gender.F)
+                .build();
+        assertThat(JsonPath.parse(getAndAssertOk(uri, refreshToken).body()).read("$.totalSize"), is(0));
+    }
+
+    @Test
+    void getAllAfterWalksAllPersonsOrderedByLastName() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        List<String> lastNames = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            UriBuilder uriBuilder = UriBuilder.of(PERSON_CURSOR).queryParam(PersonEndpoint.SIZE, 2);
+            if (after != null) {
+                uriBuilder.queryParam(PersonEndpoint.AFTER, after);
+            }
+
+            HttpResponse<String> response = client.toBlocking().exchange(
+                    GET(uriBuilder.build()).bearerAuth(refreshToken.getAccessToken()),
+                    String.class
+            );
+
+            assertEquals(HttpStatus.OK, response.getStatus());
+
+            ReadContext ctx = JsonPath.parse(response.body());
+            assertThat(ctx.read("$.size"), is(2));
+            lastNames.addAll(ctx.read("$.content[*].lastName"));
+            after = ctx.read("$.next");
+            pages++;
+        } while (after != null);
+
+        assertEquals(3, pages);
+        assertEquals(List.of("Bauer", "Bauer", "Dessler", "O'Brian", "Palmer"), lastNames);
+    }
+
+    @Test
+    void getAllAfterInvalidCursor() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_CURSOR).queryParam(PersonEndpoint.AFTER, "invalid").build();
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatus());
+    }
+
+    @Test
+    void exportAllPersons() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(PERSON_EXPORT).bearerAuth(refreshToken.getAccessToken()),
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertTrue(response.getContentType().isPresent());
+        assertEquals(PersonEndpoint.APPLICATION_NDJSON, response.getContentType().get().getName());
+
+        String[] lines = response.body().split("\n");
+        assertEquals(5, lines.length);
+        for (String line : lines) {
+            ReadContext ctx = JsonPath.parse(line);
+            assertThat(ctx.read("$.id"), isA(Number.class));
+            assertThat(ctx.read("$.lastName"), isA(String.class));
+        }
+    }
+
     @Test
     public void createPersonUnauthorized() throws Exception {
 
@@ -300,6 +803,170 @@ class PersonEndpointTest extends BaseEndpointTest {
         assertThat(ctx.read("$.dateOfBirth"), is(person.getDateOfBirth().getTime()));
     }
 
+    /**
+     * Id of a new person is generated even if posted, so it never collides with the ids of the person sequence.
+     */
+    @Test
+    public void createPersonIgnoresId() throws Exception {
+
+        Person person = createPerson("first", "last");
+        person.setId(Long.MAX_VALUE - 1);
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                POST(PERSON, json(person))
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        Number id = JsonPath.parse(response.body()).read("$.id");
+        assertNotEquals(person.getId(), id.longValue());
+        assertTrue(personRepository.existsById(id.longValue()));
+        assertFalse(personRepository.existsById(person.getId()));
+    }
+
+    @Test
+    public void createPersonCbor() throws Exception {
+
+        Person person = createPerson("first", "last");
+        person.addAddress(new Address("line1", "city", "state", "zip"));
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        HttpResponse<byte[]> response = client.toBlocking().exchange(
+                POST(PERSON, cborMediaTypeCodec.encode(person))
+                        .contentType(CborMediaTypeCodec.APPLICATION_CBOR_TYPE)
+                        .accept(CborMediaTypeCodec.APPLICATION_CBOR_TYPE)
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                byte[].class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals(CborMediaTypeCodec.APPLICATION_CBOR_TYPE, response.getContentType().orElseThrow());
+
+        Person created = cborMediaTypeCodec.decode(Person.class, response.body());
+        assertNotNull(created.getId());
+        assertEquals("first", created.getFirstName());
+        assertEquals(1, created.getAddresses().size());
+    }
+
+    @Test
+    public void createPersonsBatchForbiddenInvalidScope() throws Exception {
+
+        String content = json(List.of(createPerson("first", "last")));
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                POST(PERSON_BATCH, content).bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatus());
+    }
+
+    @Test
+    public void createPersonsBatch() throws Exception {
+
+        Person invalid = createPerson("first", null);
+        String content = json(List.of(createPerson("first1", "last1"), invalid, createPerson("first2", "last2")));
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                POST(PERSON_BATCH, content)
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+
+        assertThat(ctx.read("$.items.size()"), is(3));
+        assertThat(ctx.read("$.saved"), is(2));
+        assertThat(ctx.read("$.rejected"), is(1));
+        assertThat(ctx.read("$.rowsPerSecond"), isA(Number.class));
+        assertThat(ctx.read("$.items[0].status"), is("CREATED"));
+        assertThat(ctx.read("$.items[0].id"), isA(Number.class));
+        assertThat(ctx.read("$.items[1].status"), is("INVALID"));
+        assertThat(ctx.read("$.items[1].errors[0].field"), is("lastName"));
+        assertThat(ctx.read("$.items[2].status"), is("CREATED"));
+
+        assertEquals(7L, personService.findAll(Pageable.from(0)).getTotalSize());
+    }
+
+    @Test
+    public void createPersonsBatchNdjson() throws Exception {
+
+        String content = json(createPerson("first1", "last1")) + "\n" + json(createPerson("first2", "last2")) + "\n";
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                POST(PERSON_BATCH, content)
+                        .contentType(PersonEndpoint.APPLICATION_NDJSON)
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+
+        assertThat(ctx.read("$.items.size()"), is(2));
+        assertThat(ctx.read("$.saved"), is(2));
+        assertThat(ctx.read("$.rejected"), is(0));
+    }
+
+    @Test
+    public void updatePersonsBatch() throws Exception {
+
+        long count = personRepository.count();
+
+        Person person = testPerson;
+        person.setFirstName("first");
+        Person unknown = createPerson("first", "last");
+        unknown.setId(Long.MAX_VALUE);
+        String content = json(List.of(person, unknown));
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                POST(PERSON_BATCH, content)
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+
+        assertThat(ctx.read("$.saved"), is(1));
+        assertThat(ctx.read("$.items[0].status"), is("UPDATED"));
+        assertThat(ctx.read("$.items[0].id"), is(person.getId().intValue()));
+        assertThat(ctx.read("$.items[1].status"), is("FAILED"));
+
+        //updated in place, neither inserted as a new person nor failed on the existing id
+        assertEquals(count, personRepository.count());
+        entityManager.clear();
+        Person updated = personRepository.findById(person.getId()).orElseThrow();
+        assertEquals("first", updated.getFirstName());
+        assertEquals(person.getVersion() + 1, updated.getVersion());
+    }
+
     @Test
     public void updatePersonUnauthorized() throws Exception {
 
@@ -373,6 +1040,153 @@ class PersonEndpointTest extends BaseEndpointTest {
         assertThat(ctx.read("$.dateOfBirth"), is(person.getDateOfBirth().getTime()));
     }
 
+    @Test
+    public void updatePersonIfMatch() throws Exception {
+
+        Person person = testPerson;
+        person.setFirstName("first");
+
+        String content = json(person);
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, person.getId()));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                PUT(uri, content)
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(HttpHeaders.IF_MATCH, "\"" + person.getVersion() + "\"")
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        assertEquals("\"" + (person.getVersion() + 1) + "\"", response.header(HttpHeaders.ETAG));
+
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.firstName"), is(person.getFirstName()));
+        assertThat(ctx.read("$.version"), is(person.getVersion().intValue() + 1));
+
+        //the same version has been updated already
+        response = client.toBlocking().exchange(
+                PUT(uri, content)
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(HttpHeaders.IF_MATCH, "\"" + person.getVersion() + "\"")
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatus());
+    }
+
+    @Test
+    public void updatePersonWithAddressesStaleVersion() throws Exception {
+
+        Person person = testPerson;
+        person.addAddress(new Address("line1", "city", "state", "zip"));
+
+        String content = json(person);
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, person.getId()));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                PUT(uri, content)
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.addresses.size()"), is(1));
+
+        response = client.toBlocking().exchange(
+                PUT(uri, content)
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.PRECONDITION_FAILED, response.getStatus());
+    }
+
+    @Test
+    public void updatePersonWithoutAddressesKeepsAddresses() throws Exception {
+
+        Person person = testPerson;
+        person.addAddress(new Address("line1", "city", "state", "zip"));
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, person.getId()));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                PUT(uri, json(person))
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        //names only
+        person.setAddresses(null);
+        person.setFirstName("first");
+        response = client.toBlocking().exchange(
+                PUT(uri, json(person))
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(HttpHeaders.IF_MATCH, response.header(HttpHeaders.ETAG))
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.firstName"), is("first"));
+        assertThat(ctx.read("$.addresses.size()"), is(1));
+
+        //empty addresses remove them
+        person.setAddresses(new HashSet<>());
+        response = client.toBlocking().exchange(
+                PUT(uri, json(person))
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(HttpHeaders.IF_MATCH, response.header(HttpHeaders.ETAG))
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.addresses.size()"), is(0));
+    }
+
+    @Test
+    public void updatePersonNotFound() throws Exception {
+
+        Person person = createPerson("first", "last");
+
+        String content = json(person);
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, Long.MAX_VALUE));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                PUT(uri, content)
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+    }
+
     private void assertPage(ReadContext ctx, Pageable pageable, int defaultMaxPageSize, Page<Person> persons) {
 
         assertThat(ctx.read("$"), isA(Object.class));
@@ -384,6 +1198,33 @@ class PersonEndpointTest extends BaseEndpointTest {
         assertThat(ctx.read("$.numberOfElements"), is(persons.getNumberOfElements()));
     }
 
+    private HttpResponse<String> getAndAssertOk(URI uri, BearerAccessRefreshToken refreshToken) {
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                String.class
+        );
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        return response;
+    }
+
+    /**
+     * Lookups served by the hibernate second-level or query cache would not execute any statement.
+     */
+    private void evictSecondLevelCache() {
+
+        entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache().evictAllRegions();
+    }
+
+    private int statementCount(HttpResponse<?> response) {
+
+        String count = response.header(StatementFilter.HEADER_STATEMENT_COUNT);
+        assertNotNull(count);
+
+        return Integer.parseInt(count);
+    }
+
     private Person createPerson(String first, String last) {
 
         Person person = new Person(first, last);
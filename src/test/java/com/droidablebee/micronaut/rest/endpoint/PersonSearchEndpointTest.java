@@ -0,0 +1,136 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.repository.PersonRepository;
+import com.droidablebee.micronaut.rest.search.PersonNameIndex;
+import com.droidablebee.micronaut.rest.service.PersonService;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ReadContext;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.uri.UriBuilder;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.List;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonSearchEndpoint.PERSON_SEARCH;
+import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITHOUT_ROLES;
+import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITH_READ_ROLE;
+import static io.micronaut.http.HttpRequest.GET;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//persons are committed by the service, the index is updated after the commit
+@MicronautTest(transactional = false)
+class PersonSearchEndpointTest extends BaseEndpointTest {
+
+    @Inject
+    PersonService personService;
+
+    @Inject
+    PersonRepository personRepository;
+
+    @Inject
+    PersonNameIndex personNameIndex;
+
+    private Person almeida;
+
+    @BeforeEach
+    void beforeEach() {
+
+        almeida = personService.save(new Person("Tony", "Almeida"));
+        personService.save(new Person("Nina", "Myers"));
+        personService.save(new Person("Sherry", "Palmer"));
+        personService.save(new Person("Wayne", "Palmer"));
+    }
+
+    @AfterEach
+    void afterEach() {
+
+        personRepository.deleteAll();
+        //persons deleted directly in the database stay indexed otherwise
+        personNameIndex.clear();
+    }
+
+    @Test
+    void searchForbiddenInvalidScope() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITHOUT_ROLES));
+
+        HttpResponse<String> response = search("Almeida", refreshToken);
+
+        assertEquals(HttpStatus.FORBIDDEN, response.getStatus());
+    }
+
+    @Test
+    void searchMisspelledName() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        HttpResponse<String> response = search("tony almieda", refreshToken);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$[0].id"), is(almeida.getId().intValue()));
+        assertThat(ctx.read("$[0].lastName"), is("Almeida"));
+    }
+
+    @Test
+    void searchRanksBetterMatchesFirst() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        HttpResponse<String> response = search("Wayne Palmer", refreshToken);
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        ReadContext ctx = JsonPath.parse(response.body());
+        List<String> firstNames = ctx.read("$[*].firstName");
+        assertEquals(List.of("Wayne", "Sherry"), firstNames.subList(0, 2));
+        List<Double> scores = ctx.read("$[*].score");
+        assertThat(scores.get(0) > scores.get(1), is(true));
+    }
+
+    @Test
+    void searchFindsUpdatedNames() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        personService.update(almeida.getId(), null, new Person("Tony", "Almeyda-Dessler"));
+
+        ReadContext ctx = JsonPath.parse(search("Dessler", refreshToken).body());
+        assertThat(ctx.read("$[0].id"), is(almeida.getId().intValue()));
+
+        List<Object> matches = JsonPath.parse(search("Almeida", refreshToken).body()).read("$[?(@.lastName == 'Almeida')]");
+        assertThat(matches, is(empty()));
+        assertThat(JsonPath.parse(search("Almeyda", refreshToken).body()).read("$"), is(not(empty())));
+    }
+
+    @Test
+    void searchBlankQuery() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        assertEquals(HttpStatus.BAD_REQUEST, search(" ", refreshToken).getStatus());
+    }
+
+    private HttpResponse<String> search(String query, BearerAccessRefreshToken refreshToken) {
+
+        URI uri = UriBuilder.of(PERSON_SEARCH).queryParam(PersonSearchEndpoint.QUERY, query).build();
+
+        return client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+    }
+}
@@ -0,0 +1,131 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.repository.PersonRepository;
+import com.droidablebee.micronaut.rest.service.PersonService;
+import com.droidablebee.micronaut.rest.service.ReactivePersonService;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ReadContext;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.uri.UriBuilder;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.UUID;
+
+import static com.droidablebee.micronaut.rest.endpoint.ReactivePersonEndpoint.REACTIVE_PERSON;
+import static com.droidablebee.micronaut.rest.endpoint.ReactivePersonEndpoint.REACTIVE_PERSON_BY_ID;
+import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITH_READ_ROLE;
+import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITH_WRITE_ROLE;
+import static io.micronaut.http.HttpRequest.GET;
+import static io.micronaut.http.HttpRequest.POST;
+import static java.util.Collections.singletonMap;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.isA;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@MicronautTest
+@Property(name = ReactivePersonService.ENABLED, value = "true")
+class ReactivePersonEndpointTest extends BaseEndpointTest {
+
+    @Inject
+    PersonService personService;
+
+    @Inject
+    PersonRepository personRepository;
+
+    private Person testPerson;
+
+    @BeforeEach
+    void beforeEach() {
+
+        testPerson = personService.save(new Person("Jack", "Bauer"));
+        personService.save(new Person("Chloe", "O'Brian"));
+    }
+
+    @AfterEach
+    void afterEach() {
+
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void getPersonById() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(REACTIVE_PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, testPerson.getId()));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.id"), is(testPerson.getId().intValue()));
+        assertThat(ctx.read("$.lastName"), is(testPerson.getLastName()));
+    }
+
+    @Test
+    void getPersonByIdNotFound() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        URI uri = UriBuilder.of(REACTIVE_PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, Long.MAX_VALUE));
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+    }
+
+    @Test
+    void getAll() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(REACTIVE_PERSON).bearerAuth(refreshToken.getAccessToken()),
+                String.class
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.content.size()"), is(2));
+        assertThat(ctx.read("$.totalSize"), is(2));
+    }
+
+    @Test
+    void createPerson() throws Exception {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                POST(REACTIVE_PERSON, json(new Person("first", "last")))
+                        .bearerAuth(refreshToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.id"), isA(Number.class));
+        assertThat(ctx.read("$.lastName"), is("last"));
+    }
+}
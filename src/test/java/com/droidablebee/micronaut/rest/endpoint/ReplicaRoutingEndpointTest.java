@@ -0,0 +1,138 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.jdbc.ReplicaRouter;
+import com.droidablebee.micronaut.rest.repository.PersonRepository;
+import com.droidablebee.micronaut.rest.service.PersonService;
+import com.jayway.jsonpath.JsonPath;
+import com.jayway.jsonpath.ReadContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpRequest;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.context.ServerRequestContext;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITHOUT_ROLES;
+import static io.micronaut.http.HttpRequest.GET;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The replica is a second connection pool of the same in-memory database, standing in for a replica without lag.
+ */
+@MicronautTest(transactional = false)
+@Property(name = ReplicaRouter.ENABLED, value = "true")
+@Property(name = "person.datasource.routing.replica-urls", value = "jdbc:h2:mem:devDb;LOCK_TIMEOUT=10000;DB_CLOSE_ON_EXIT=FALSE")
+@Property(name = "person.datasource.routing.heartbeat-interval", value = "50ms")
+class ReplicaRoutingEndpointTest extends BaseEndpointTest {
+
+    @Inject
+    ReplicaRouter router;
+
+    @Inject
+    PersonService personService;
+
+    @Inject
+    PersonRepository personRepository;
+
+    @Inject
+    MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void beforeEach() throws Exception {
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!replica().isHealthy() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertTrue(replica().isHealthy());
+    }
+
+    @AfterEach
+    void afterEach() {
+
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void readOnlyTransactionsUseReplica() {
+
+        Person person = personService.save(new Person("Jack", "Bauer"));
+
+        long connections = replica().getConnections();
+        assertNotNull(personService.findSummary(person.getId()));
+        assertEquals(connections + 1, replica().getConnections());
+    }
+
+    /**
+     * Persons cached are read from the primary, a lagging replica would leave the cache stale.
+     */
+    @Test
+    public void cachedReadsUsePrimary() {
+
+        Person person = personService.save(new Person("Tony", "Almeida"));
+
+        long connections = replica().getConnections();
+        assertNotNull(personService.findOne(person.getId()));
+        assertEquals(connections, replica().getConnections());
+    }
+
+    @Test
+    public void readsAfterWriteInRequestUsePrimary() {
+
+        ServerRequestContext.with(HttpRequest.GET("/"), () -> {
+            long connections = replica().getConnections();
+            Person person = personService.save(new Person("Chloe", "O'Brian"));
+            assertNotNull(personService.findSummary(person.getId()));
+            assertEquals(connections, replica().getConnections());
+        });
+
+        //other requests still read from the replica
+        Person person = personRepository.findAll().iterator().next();
+        long connections = replica().getConnections();
+        ServerRequestContext.with(HttpRequest.GET("/"), () -> assertNotNull(personService.findSummary(person.getId())));
+        assertEquals(connections + 1, replica().getConnections());
+    }
+
+    @Test
+    public void replicaPoolMetrics() {
+
+        assertNotNull(meterRegistry.find("hikaricp.connections.active").tag("pool", replica().getName()).gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections.pending").tag("pool", replica().getName()).gauge());
+    }
+
+    @Test
+    public void getHealthAuthorized() {
+
+        BearerAccessRefreshToken refreshToken = loginAndAssert(createCredentials(USER_WITHOUT_ROLES));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET("/management/health").bearerAuth(refreshToken.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        ReadContext ctx = JsonPath.parse(response.body());
+        assertThat(ctx.read("$.status"), is("UP"));
+        assertThat(ctx.read("$.details.replicas.status"), is("UP"));
+        assertThat(ctx.read("$.details.replicas.details['replica-0'].status"), is("UP"));
+        assertThat(ctx.read("$.details.replicas.details['replica-0'].lagMillis"), is(0));
+    }
+
+    private ReplicaRouter.Replica replica() {
+
+        return router.getReplicas().get(0);
+    }
+}
@@ -0,0 +1,79 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.executor.PersonExecutorFactory;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpHeaders;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.uri.UriBuilder;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import jakarta.inject.Named;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_BY_ID;
+import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITH_READ_ROLE;
+import static io.micronaut.http.HttpRequest.GET;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@MicronautTest
+@Property(name = "person.executor.threads", value = "1")
+@Property(name = "person.executor.queue-size", value = "1")
+class SaturatedExecutorEndpointTest extends BaseEndpointTest {
+
+    @Inject
+    @Named(PersonExecutorFactory.PERSON)
+    ExecutorService executorService;
+
+    @Test
+    public void getPersonRejectedWhenExecutorSaturated() throws Exception {
+
+        BearerAccessRefreshToken token = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, Long.MAX_VALUE));
+
+        //occupy the only thread and the only queue slot
+        CountDownLatch latch = new CountDownLatch(1);
+        Future<?> running = executorService.submit(() -> await(latch));
+        Future<?> queued = executorService.submit(() -> await(latch));
+        try {
+            HttpResponse<String> response = client.toBlocking().exchange(
+                    GET(uri).bearerAuth(token.getAccessToken()),
+                    Argument.of(String.class),
+                    Argument.of(String.class)
+            );
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatus());
+            assertEquals("1", response.header(HttpHeaders.RETRY_AFTER));
+        } finally {
+            latch.countDown();
+        }
+        running.get(5, TimeUnit.SECONDS);
+        queued.get(5, TimeUnit.SECONDS);
+
+        //served again once the executor has capacity
+        HttpResponse<String> response = client.toBlocking().exchange(
+                GET(uri).bearerAuth(token.getAccessToken()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatus());
+    }
+
+    private void await(CountDownLatch latch) {
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.droidablebee.micronaut.rest.endpoint;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.repository.PersonRepository;
+import com.droidablebee.micronaut.rest.service.WriteBehindPersonService;
+import com.jayway.jsonpath.JsonPath;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.uri.UriBuilder;
+import io.micronaut.security.token.jwt.render.BearerAccessRefreshToken;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.util.UUID;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_BY_ID;
+import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITH_READ_ROLE;
+import static com.droidablebee.micronaut.rest.security.AuthenticationProviderUserPassword.USER_WITH_WRITE_ROLE;
+import static io.micronaut.http.HttpRequest.GET;
+import static io.micronaut.http.HttpRequest.POST;
+import static java.util.Collections.singletonMap;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+@MicronautTest(transactional = false)
+@Property(name = WriteBehindPersonService.ENABLED, value = "true")
+@Property(name = "person.write-behind.file", value = "build/journal/person-test.journal")
+@Property(name = "person.write-behind.drain-interval", value = "10ms")
+class WriteBehindPersonEndpointTest extends BaseEndpointTest {
+
+    @Inject
+    PersonRepository personRepository;
+
+    @AfterEach
+    void afterEach() {
+
+        personRepository.deleteAll();
+    }
+
+    @Test
+    public void createPersonRespondAsync() throws Exception {
+
+        BearerAccessRefreshToken writeToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                POST(PERSON, json(new Person("Renee", "Walker")))
+                        .bearerAuth(writeToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString())
+                        .header(PersonEndpoint.HEADER_PREFER, PersonEndpoint.RESPOND_ASYNC),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.ACCEPTED, response.getStatus());
+        assertEquals(PersonEndpoint.RESPOND_ASYNC, response.header(PersonEndpoint.HEADER_PREFERENCE_APPLIED));
+        Number id = JsonPath.parse(response.body()).read("$.id");
+        assertNotNull(id);
+
+        //readable with the id acknowledged once drained into the database
+        BearerAccessRefreshToken readToken = loginAndAssert(createCredentials(USER_WITH_READ_ROLE));
+        URI uri = UriBuilder.of(PERSON_BY_ID).expand(singletonMap(PersonEndpoint.ID, id));
+        long deadline = System.currentTimeMillis() + 5000;
+        HttpStatus status;
+        do {
+            Thread.sleep(20);
+            status = client.toBlocking().exchange(
+                    GET(uri).bearerAuth(readToken.getAccessToken()),
+                    Argument.of(String.class),
+                    Argument.of(String.class)
+            ).getStatus();
+        } while (status == HttpStatus.NOT_FOUND && System.currentTimeMillis() < deadline);
+
+        assertEquals(HttpStatus.OK, status);
+        Person person = personRepository.findById(id.longValue()).orElseThrow();
+        assertEquals("Walker", person.getLastName());
+    }
+
+    @Test
+    public void createPersonWithoutPreferenceIsSynchronous() throws Exception {
+
+        BearerAccessRefreshToken writeToken = loginAndAssert(createCredentials(USER_WITH_WRITE_ROLE));
+
+        HttpResponse<String> response = client.toBlocking().exchange(
+                POST(PERSON, json(new Person("Bill", "Buchanan")))
+                        .bearerAuth(writeToken.getAccessToken())
+                        .header(PersonEndpoint.HEADER_USER_ID, UUID.randomUUID().toString()),
+                Argument.of(String.class),
+                Argument.of(String.class)
+        );
+
+        assertEquals(HttpStatus.OK, response.getStatus());
+        Number id = JsonPath.parse(response.body()).read("$.id");
+        assertEquals(true, personRepository.existsById(id.longValue()));
+    }
+}
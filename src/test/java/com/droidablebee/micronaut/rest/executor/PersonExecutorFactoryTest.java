@@ -0,0 +1,58 @@
+package com.droidablebee.micronaut.rest.executor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PersonExecutorFactoryTest {
+
+    PersonExecutorFactory factory = new PersonExecutorFactory();
+
+    @Test
+    void platformExecutorRejectsWhenSaturated() throws Exception {
+
+        assertRejectsWhenSaturated(factory.personExecutor(PersonExecutorFactory.PLATFORM, 1, 1));
+    }
+
+    @Test
+    void virtualExecutorRejectsWhenSaturated() throws Exception {
+
+        //falls back to platform threads on jvm without virtual threads support
+        assertRejectsWhenSaturated(factory.personExecutor(PersonExecutorFactory.VIRTUAL, 1, 1));
+    }
+
+    private void assertRejectsWhenSaturated(ExecutorService executorService) throws Exception {
+
+        CountDownLatch latch = new CountDownLatch(1);
+        try {
+            Future<?> running = executorService.submit(() -> await(latch));
+            Future<?> queued = executorService.submit(() -> await(latch));
+
+            assertThrows(RejectedExecutionException.class, () -> executorService.submit(() -> await(latch)));
+
+            latch.countDown();
+            running.get(5, TimeUnit.SECONDS);
+            queued.get(5, TimeUnit.SECONDS);
+        } finally {
+            latch.countDown();
+            executorService.shutdown();
+            assertTrue(executorService.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private void await(CountDownLatch latch) {
+
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package com.droidablebee.micronaut.rest.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PersonJournalTest {
+
+    private static final int CAPACITY = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recordsNotDrainedAreReplayed() throws IOException {
+
+        Path file = directory.resolve("person.journal");
+
+        try (PersonJournal journal = new PersonJournal(file, CAPACITY, true)) {
+            journal.append(bytes("one"));
+            journal.append(bytes("two"));
+            journal.append(bytes("three"));
+
+            PersonJournal.Records records = journal.read(1);
+            assertEquals(List.of("one"), strings(records));
+            journal.drained(records);
+        }
+
+        try (PersonJournal journal = new PersonJournal(file, CAPACITY, true)) {
+            PersonJournal.Records records = journal.read(10);
+            assertEquals(List.of("two", "three"), strings(records));
+            journal.drained(records);
+            assertEquals(0, journal.pending());
+        }
+
+        try (PersonJournal journal = new PersonJournal(file, CAPACITY, true)) {
+            assertEquals(0, journal.pending());
+        }
+    }
+
+    @Test
+    void tornRecordIsNotReplayed() throws IOException {
+
+        Path file = directory.resolve("person.journal");
+
+        try (PersonJournal journal = new PersonJournal(file, CAPACITY, true)) {
+            journal.append(bytes("one"));
+            journal.append(bytes("two"));
+        }
+
+        //corrupt payload of the second record
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            int second = PersonJournal.HEADER_SIZE + PersonJournal.RECORD_HEADER_SIZE + 3;
+            channel.write(ByteBuffer.wrap(bytes("x")), second + PersonJournal.RECORD_HEADER_SIZE);
+        }
+
+        try (PersonJournal journal = new PersonJournal(file, CAPACITY, true)) {
+            assertEquals(List.of("one"), strings(journal.read(10)));
+        }
+    }
+
+    @Test
+    void fullJournalStartsOverOnceDrained() throws IOException {
+
+        try (PersonJournal journal = new PersonJournal(directory.resolve("person.journal"), CAPACITY, false)) {
+            byte[] payload = new byte[400];
+            journal.append(payload);
+            journal.append(payload);
+            assertThrows(RejectedExecutionException.class, () -> journal.append(payload));
+
+            journal.drained(journal.read(10));
+            journal.append(payload);
+            assertEquals(1, journal.read(10).getPayloads().size());
+        }
+    }
+
+    @Test
+    void journalWrapsPastDrainedRecords() throws IOException {
+
+        Path file = directory.resolve("person.journal");
+
+        try (PersonJournal journal = new PersonJournal(file, CAPACITY, true)) {
+            journal.append(payload('a', 300));
+            journal.append(payload('b', 300));
+            journal.append(payload('c', 300));
+            assertThrows(RejectedExecutionException.class, () -> journal.append(payload('d', 300)));
+
+            //the space of the first record alone is not enough for the record and the zero length following it
+            journal.drained(journal.read(1));
+            assertThrows(RejectedExecutionException.class, () -> journal.append(payload('d', 300)));
+
+            //written at the beginning while the third record is not drained yet
+            journal.drained(journal.read(1));
+            journal.append(payload('d', 300));
+            assertThrows(RejectedExecutionException.class, () -> journal.append(payload('e', 300)));
+        }
+
+        try (PersonJournal journal = new PersonJournal(file, CAPACITY, true)) {
+            PersonJournal.Records records = journal.read(10);
+            assertEquals(2, records.getPayloads().size());
+            assertArrayEquals(payload('c', 300), records.getPayloads().get(0));
+            assertArrayEquals(payload('d', 300), records.getPayloads().get(1));
+            journal.drained(records);
+            assertEquals(0, journal.pending());
+
+            journal.append(payload('e', 300));
+            assertEquals(1, journal.read(10).getPayloads().size());
+        }
+    }
+
+    private byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private byte[] payload(char value, int length) {
+
+        byte[] payload = new byte[length];
+        Arrays.fill(payload, (byte) value);
+
+        return payload;
+    }
+
+    private List<String> strings(PersonJournal.Records records) {
+
+        return records.getPayloads().stream()
+                .map(payload -> new String(payload, StandardCharsets.UTF_8))
+                .collect(Collectors.toList());
+    }
+}
@@ -1,25 +1,57 @@
 package com.droidablebee.micronaut.rest.repository;
 
+import com.droidablebee.micronaut.rest.domain.Address;
 import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.service.PersonFilter;
+import com.droidablebee.micronaut.rest.service.PersonService;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.context.annotation.Requires;
+import io.micronaut.data.model.Pageable;
 import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+import org.hibernate.Session;
 import org.junit.jupiter.api.Test;
 
 import javax.persistence.EntityManager;
 import javax.persistence.PersistenceContext;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
 
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.allOf;
+import static org.hamcrest.Matchers.containsString;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 @MicronautTest
+@Property(name = "spec.name", value = "PersonRepositoryITest")
 class PersonRepositoryITest {
 
     @Inject
     PersonRepository personRepository;
 
+    @Inject
+    PersonService personService;
+
+    @Inject
+    StatementCapture statements;
+
     @PersistenceContext
     EntityManager entityManager;
 
@@ -50,4 +82,168 @@ class PersonRepositoryITest {
         Person person = entityManager.find(Person.class, Long.MAX_VALUE);
         assertNull(person);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllBySpecification() {
+
+        Person bauer = new Person("Jack", "Bauer");
+        bauer.addAddress(new Address("line1", "Los Angeles", "CA", "90001"));
+        personRepository.save(bauer);
+        Person palmer = new Person("David", "Palmer");
+        palmer.addAddress(new Address("line1", "Washington", "DC", "20500"));
+        personRepository.save(palmer);
+        personRepository.save(new Person("Kim", "Bauer"));
+
+        List<Person> persons = personRepository.findAll(PersonSpecifications.lastNameStartsWith("Bau"));
+        assertEquals(2, persons.size());
+
+        persons = personRepository.findAll(PersonSpecifications.lastNameStartsWith("Bau")
+                .and(PersonSpecifications.hasAddress("Los Angeles", "CA", null)));
+        assertEquals(1, persons.size());
+        assertEquals(bauer.getId(), persons.get(0).getId());
+
+        assertEquals(0, personRepository.findAll(PersonSpecifications.lastNameStartsWith("B%")).size());
+    }
+
+    /**
+     * Rows written without a version, such as the rows existing when the version column was added by the schema
+     * update, start at version 0, so they can be updated if-match and their version incremented.
+     */
+    @Test
+    void versionDefaultsToZero() {
+
+        entityManager.createNativeQuery("insert into person (person_id, first_name, last_name) values (:id, 'Tony', 'Almeida')")
+                .setParameter("id", Long.MAX_VALUE)
+                .executeUpdate();
+
+        Person updated = personService.update(Long.MAX_VALUE, 0L, new Person("Tony", "Almeida"));
+        assertEquals(1L, updated.getVersion());
+    }
+
+    /**
+     * Single and bulk updates write the same fields.
+     */
+    @Test
+    void updatesWriteAllFields() {
+
+        Date dateOfBirth = Date.from(LocalDate.of(2000, 6, 1).atStartOfDay(ZoneOffset.UTC).toInstant());
+        Person bauer = personRepository.save(new Person("Jack", "Bauer"));
+        Person palmer = personRepository.save(new Person("David", "Palmer"));
+
+        Person person = new Person("Jack", "Bauer");
+        person.setGender(Person.Gender.M);
+        person.setDateOfBirth(dateOfBirth);
+        Person updated = personService.update(bauer.getId(), null, person);
+        assertEquals(Person.Gender.M, updated.getGender());
+        assertEquals(dateOfBirth.getTime(), updated.getDateOfBirth().getTime());
+
+        person = new Person(palmer.getId(), "David", "Palmer");
+        person.setGender(Person.Gender.M);
+        person.setDateOfBirth(dateOfBirth);
+        updated = personService.saveAll(List.of(person)).get(0);
+        assertEquals(Person.Gender.M, updated.getGender());
+        assertEquals(dateOfBirth.getTime(), updated.getDateOfBirth().getTime());
+    }
+
+    /**
+     * Statements generated by hibernate for the search are resolved by the database using the indexes
+     * instead of scanning the tables.
+     */
+    @Test
+    void searchUsesIndexes() {
+
+        Person bauer = new Person("Jack", "Bauer");
+        bauer.setDateOfBirth(Date.from(LocalDate.of(2000, 6, 1).atStartOfDay(ZoneOffset.UTC).toInstant()));
+        bauer.setGender(Person.Gender.M);
+        bauer.addAddress(new Address("line1", "Los Angeles", "CA", "90001"));
+        personRepository.save(bauer);
+
+        PersonFilter filter = new PersonFilter();
+        filter.setLastName("Bau");
+        assertThat(explainSearch(filter), allOf(containsString("IDX_PERSON_LAST_NAME_ID"), containsString("IDX_ADDRESS_PERSON_ID")));
+
+        filter = new PersonFilter();
+        filter.setDateOfBirthFrom(bauer.getDateOfBirth());
+        filter.setDateOfBirthBefore(new Date(bauer.getDateOfBirth().getTime() + 1));
+        assertThat(explainSearch(filter), containsString("IDX_PERSON_DOB"));
+
+        filter = new PersonFilter();
+        filter.setGender(Person.Gender.M);
+        filter.setDateOfBirthFrom(bauer.getDateOfBirth());
+        assertThat(explainSearch(filter), containsString("IDX_PERSON_GENDER_DOB"));
+
+        filter = new PersonFilter();
+        filter.setZip("90001");
+        assertThat(explainSearch(filter), containsString("IDX_ADDRESS_ZIP"));
+
+        filter = new PersonFilter();
+        filter.setCity("Los Angeles");
+        filter.setState("CA");
+        assertThat(explainSearch(filter), containsString("IDX_ADDRESS_CITY_STATE"));
+    }
+
+    /**
+     * Returns plans of the select statements executed by the search, as generated by hibernate and with the very same
+     * parameters.
+     */
+    private String explainSearch(PersonFilter filter) {
+
+        entityManager.flush();
+        statements.clear();
+        assertEquals(1, personService.findAll(filter, Pageable.from(0, 10)).getContent().size());
+        List<QueryInfo> queries = statements.get();
+
+        StringBuilder plans = new StringBuilder();
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            for (QueryInfo query : queries) {
+                if (!query.getQuery().trim().toLowerCase(Locale.ROOT).startsWith("select")) {
+                    continue;
+                }
+                try (PreparedStatement statement = connection.prepareStatement("explain " + query.getQuery())) {
+                    for (List<ParameterSetOperation> parameters : query.getParametersList()) {
+                        for (ParameterSetOperation operation : parameters) {
+                            operation.getMethod().invoke(statement, operation.getArgs());
+                        }
+                    }
+                    try (ResultSet resultSet = statement.executeQuery()) {
+                        while (resultSet.next()) {
+                            plans.append(resultSet.getString(1)).append('\n');
+                        }
+                    }
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        });
+
+        return plans.toString();
+    }
+
+    /**
+     * Captures the statements executed against the datasource.
+     */
+    @Singleton
+    @Requires(property = "spec.name", value = "PersonRepositoryITest")
+    static class StatementCapture implements QueryExecutionListener {
+
+        private final List<QueryInfo> queries = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+
+            queries.addAll(queryInfoList);
+        }
+
+        void clear() {
+            queries.clear();
+        }
+
+        List<QueryInfo> get() {
+            return new ArrayList<>(queries);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.droidablebee.micronaut.rest.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NameIndexTest {
+
+    @Test
+    void trigramsOfPaddedWords() {
+
+        //"  jo", " jo ", "jo ", twice for the second word
+        assertEquals(3, NameIndex.trigrams("Jo", "jo").length);
+        assertEquals(0, NameIndex.trigrams(" - ", null).length);
+    }
+
+    @Test
+    void searchRanksAndLimits() {
+
+        NameIndex index = new NameIndex();
+        index.put(1, "Jack", null, "Bauer");
+        index.put(2, "Kim", null, "Bauer");
+        index.put(3, "Chloe", null, "O'Brian");
+
+        List<NameMatch> matches = index.search("jack bauer", 10, 0.3f);
+        assertEquals(2, matches.size());
+        assertEquals(1, matches.get(0).getId());
+        assertEquals(1.0f, matches.get(0).getScore());
+        assertEquals(2, matches.get(1).getId());
+
+        assertEquals(1, index.search("jack bauer", 1, 0.3f).size());
+        assertTrue(index.search("xyz", 10, 0.3f).isEmpty());
+    }
+
+    @Test
+    void putReplacesNamesAndCompacts() {
+
+        NameIndex index = new NameIndex();
+        for (int i = 0; i < 5000; i++) {
+            index.put(i % 100, "first" + i, null, "last" + i);
+        }
+
+        assertEquals(100, index.size());
+        List<NameMatch> matches = index.search("first4999", 10, 0.5f);
+        assertEquals(99, matches.get(0).getId());
+        assertTrue(index.search("first0", 10, 1.0f).isEmpty());
+    }
+
+    @Test
+    void removeAndClear() {
+
+        NameIndex index = new NameIndex();
+        index.put(1, "Jack", null, "Bauer");
+        index.put(2, "Kim", null, "Bauer");
+
+        index.remove(1);
+        index.remove(3);
+        assertEquals(1, index.size());
+        List<NameMatch> matches = index.search("jack bauer", 10, 0.3f);
+        assertEquals(1, matches.size());
+        assertEquals(2, matches.get(0).getId());
+
+        //removed person indexed again
+        index.put(1, "Jack", null, "Bauer");
+        assertEquals(1, index.search("jack bauer", 10, 0.3f).get(0).getId());
+
+        index.clear();
+        assertEquals(0, index.size());
+        assertTrue(index.search("jack bauer", 10, 0.3f).isEmpty());
+    }
+}
@@ -0,0 +1,82 @@
+package com.droidablebee.micronaut.rest.security;
+
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.authentication.AuthenticationException;
+import io.micronaut.security.token.generator.TokenGenerator;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_READ_PERMISSION;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@MicronautTest
+class CachingTokenValidatorTest {
+
+    @Inject
+    CachingTokenValidator validator;
+
+    @Inject
+    TokenGenerator tokenGenerator;
+
+    @Inject
+    PermissionBits permissionBits;
+
+    @BeforeEach
+    void beforeEach() {
+
+        validator.getCache().invalidateAll();
+    }
+
+    @Test
+    void validateTokenCachesAuthentication() {
+
+        String token = generateToken(3600);
+
+        Authentication authentication = Mono.from(validator.validateToken(token, null)).block();
+        assertNotNull(authentication);
+        assertEquals("user", authentication.getName());
+        assertEquals(List.of(PERSON_READ_PERMISSION), List.copyOf(authentication.getRoles()));
+        assertEquals(permissionBits.of(List.of(PERSON_READ_PERMISSION)), authentication.getAttributes().get(PermissionBits.ATTRIBUTE));
+
+        assertSame(authentication, Mono.from(validator.validateToken(token, null)).block());
+        assertEquals(1, validator.getCache().stats().hitCount());
+        assertEquals(1, validator.getCache().stats().missCount());
+    }
+
+    @Test
+    void validateTokenInvalidSignature() {
+
+        String token = generateToken(3600);
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        //rejected rather than left to the jwt validator, which would verify the signature again
+        assertThrows(AuthenticationException.class, () -> Mono.from(validator.validateToken(tampered, null)).block());
+        assertEquals(0, validator.getCache().estimatedSize());
+    }
+
+    @Test
+    void validateTokenExpired() throws InterruptedException {
+
+        String token = generateToken(1);
+        assertNotNull(Mono.from(validator.validateToken(token, null)).block());
+
+        //cached authentication expires with the token
+        Thread.sleep(1100);
+        validator.getCache().cleanUp();
+        assertNull(validator.getCache().getIfPresent(CachingTokenValidator.digest(token)));
+    }
+
+    private String generateToken(int expiration) {
+
+        return tokenGenerator.generateToken(Authentication.build("user", List.of(PERSON_READ_PERMISSION)), expiration).orElseThrow();
+    }
+}
@@ -0,0 +1,97 @@
+package com.droidablebee.micronaut.rest.security;
+
+import io.micronaut.core.type.Argument;
+import io.micronaut.http.HttpMethod;
+import io.micronaut.http.HttpResponse;
+import io.micronaut.http.HttpStatus;
+import io.micronaut.http.MutableHttpRequest;
+import io.micronaut.http.client.HttpClient;
+import io.micronaut.http.client.annotation.Client;
+import io.micronaut.security.authentication.Authentication;
+import io.micronaut.security.rules.SecurityRuleResult;
+import io.micronaut.security.token.generator.TokenGenerator;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import io.micronaut.web.router.RouteMatch;
+import io.micronaut.web.router.Router;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_READ_PERMISSION;
+import static com.droidablebee.micronaut.rest.endpoint.PersonEndpoint.PERSON_WRITE_PERMISSION;
+import static io.micronaut.http.HttpRequest.GET;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@MicronautTest
+class PermissionSecurityRuleTest {
+
+    private static final String PERSON_BY_ID = "/v1/person/" + Long.MAX_VALUE;
+
+    @Inject
+    @Client("/")
+    HttpClient client;
+
+    @Inject
+    TokenGenerator tokenGenerator;
+
+    @Inject
+    Router router;
+
+    @Test
+    void allowed() {
+
+        //passes the rule and is then not found
+        assertEquals(HttpStatus.NOT_FOUND, exchange(GET(PERSON_BY_ID).bearerAuth(generateToken(PERSON_READ_PERMISSION))).getStatus());
+    }
+
+    @Test
+    void missingPermission() {
+
+        assertEquals(HttpStatus.FORBIDDEN, exchange(GET(PERSON_BY_ID).bearerAuth(generateToken(PERSON_WRITE_PERMISSION))).getStatus());
+    }
+
+    @Test
+    void anonymous() {
+
+        assertEquals(HttpStatus.UNAUTHORIZED, exchange(GET(PERSON_BY_ID)).getStatus());
+    }
+
+    @Test
+    void permissionRegisteredLazily() {
+
+        //neither the route's permission nor the permission granted are registered, unlike with the startup event
+        PermissionBits permissionBits = new PermissionBits();
+        PermissionSecurityRule rule = new PermissionSecurityRule(permissionBits, router);
+        RouteMatch<?> routeMatch = router.route(HttpMethod.GET, PERSON_BY_ID).orElseThrow();
+
+        //granted bits were resolved by the token validator before the route's permission was registered
+        Authentication reader = authenticate(permissionBits, PERSON_READ_PERMISSION);
+        Authentication writer = authenticate(permissionBits, PERSON_WRITE_PERMISSION);
+
+        assertEquals(SecurityRuleResult.ALLOWED, Mono.from(rule.check(GET(PERSON_BY_ID), routeMatch, reader)).block());
+        assertEquals(SecurityRuleResult.REJECTED, Mono.from(rule.check(GET(PERSON_BY_ID), routeMatch, writer)).block());
+        assertEquals(SecurityRuleResult.REJECTED, Mono.from(rule.check(GET(PERSON_BY_ID), routeMatch, null)).block());
+    }
+
+    private HttpResponse<String> exchange(MutableHttpRequest<?> request) {
+
+        return client.toBlocking().exchange(request, Argument.of(String.class), Argument.of(String.class));
+    }
+
+    private Authentication authenticate(PermissionBits permissionBits, String permission) {
+
+        Map<String, Object> attributes = new HashMap<>();
+        permissionBits.grant(List.of(permission), attributes);
+
+        return Authentication.build("user", List.of(permission), attributes);
+    }
+
+    private String generateToken(String permission) {
+
+        return tokenGenerator.generateToken(Authentication.build("user", List.of(permission)), 3600).orElseThrow();
+    }
+}
@@ -0,0 +1,184 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.droidablebee.micronaut.rest.repository.PersonRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micronaut.cache.CacheManager;
+import io.micronaut.cache.SyncCache;
+import io.micronaut.context.annotation.Property;
+import io.micronaut.test.extensions.junit5.annotation.MicronautTest;
+import jakarta.inject.Inject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.persistence.OptimisticLockException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@MicronautTest(transactional = false)
+@Property(name = GroupCommitPersonService.ENABLED, value = "true")
+@Property(name = "person.group-commit.max-wait", value = "50ms")
+class GroupCommitPersonServiceTest {
+
+    @Inject
+    GroupCommitPersonService groupCommitPersonService;
+
+    @Inject
+    PersonService personService;
+
+    @Inject
+    PersonRepository personRepository;
+
+    @Inject
+    CacheManager<?> cacheManager;
+
+    @AfterEach
+    void afterEach() {
+
+        personRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentSavesAreCommitted() throws Exception {
+
+        List<Callable<Person>> saves = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            Person person = new Person("first" + i, "last" + i);
+            saves.add(() -> groupCommitPersonService.save(person));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(saves.size());
+        try {
+            for (Future<Person> saved : executor.invokeAll(saves)) {
+                assertNotNull(saved.get().getId());
+                assertNotNull(saved.get().getVersion());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(20, personRepository.count());
+    }
+
+    @Test
+    void failuresAreIsolated() throws Exception {
+
+        Person existing = personService.save(new Person("Jack", "Bauer"));
+        Long staleVersion = existing.getVersion() + 100;
+
+        Person update = new Person("Jack", "Bauer-Almeida");
+        update.setGender(Person.Gender.M);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<Person> updated = executor.submit(() -> groupCommitPersonService.update(existing.getId(), existing.getVersion(), update));
+            Future<Person> stale = executor.submit(() -> groupCommitPersonService.update(existing.getId(), staleVersion, new Person("Kim", "Bauer")));
+            Future<Person> missing = executor.submit(() -> groupCommitPersonService.update(Long.MAX_VALUE, null, new Person("Nina", "Myers")));
+
+            assertEquals("Bauer-Almeida", updated.get().getLastName());
+            assertEquals(Person.Gender.M, updated.get().getGender());
+            assertEquals(existing.getVersion() + 1, updated.get().getVersion());
+            Exception e = assertThrows(Exception.class, stale::get);
+            assertEquals(OptimisticLockException.class, e.getCause().getClass());
+            assertNull(missing.get());
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals("Bauer-Almeida", personRepository.findById(existing.getId()).orElseThrow().getLastName());
+    }
+
+    @Test
+    void onlyPersonsUpdatedAreInvalidated() throws Exception {
+
+        Person updated = personService.save(new Person("Jack", "Bauer"));
+        Person other = personService.save(new Person("Kim", "Bauer"));
+        personService.findOne(updated.getId());
+        personService.findOne(other.getId());
+
+        groupCommitPersonService.update(updated.getId(), null, new Person("Jack", "Bauer-Almeida"));
+        groupCommitPersonService.save(new Person("Chloe", "O'Brian"));
+
+        SyncCache<?> cache = cacheManager.getCache(PersonService.PERSON_CACHE);
+        assertFalse(cache.get(updated.getId(), Person.class).isPresent());
+        assertTrue(cache.get(other.getId(), Person.class).isPresent());
+    }
+
+    @Test
+    void errorFailsTheGroupOnly() throws Exception {
+
+        StubPersonService stub = new StubPersonService();
+        GroupCommitPersonService service = groupCommit(stub, Duration.ofSeconds(5));
+        try {
+            stub.error = true;
+            Exception e = assertThrows(IllegalStateException.class, () -> service.save(new Person("Jack", "Bauer")));
+            assertEquals(StackOverflowError.class, e.getCause().getClass());
+
+            //the committer survives the error
+            stub.error = false;
+            assertEquals("Bauer", service.save(new Person("Kim", "Bauer")).getLastName());
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    void slowCommitIsRejected() throws Exception {
+
+        StubPersonService stub = new StubPersonService();
+        GroupCommitPersonService service = groupCommit(stub, Duration.ofMillis(100));
+        try {
+            stub.latch = new CountDownLatch(1);
+            assertThrows(RejectedExecutionException.class, () -> service.save(new Person("Jack", "Bauer")));
+        } finally {
+            stub.latch.countDown();
+            service.close();
+        }
+    }
+
+    private GroupCommitPersonService groupCommit(PersonService personService, Duration commitTimeout) {
+
+        return new GroupCommitPersonService(personService, new ObjectMapper(), new SimpleMeterRegistry(),
+                50, Duration.ofMillis(1), 10, commitTimeout);
+    }
+
+    /**
+     * Applies the writes as they are, unless failing with an error or waiting for the latch.
+     */
+    static class StubPersonService extends PersonService {
+
+        volatile boolean error;
+        volatile CountDownLatch latch;
+
+        @Override
+        public void applyAll(List<PersonWrite> writes) {
+
+            if (error) {
+                throw new StackOverflowError();
+            }
+            if (latch != null) {
+                try {
+                    latch.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            writes.forEach(write -> write.applied(write.getEntity()));
+        }
+    }
+}
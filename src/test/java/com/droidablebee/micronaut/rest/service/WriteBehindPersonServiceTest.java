@@ -0,0 +1,109 @@
+package com.droidablebee.micronaut.rest.service;
+
+import com.droidablebee.micronaut.rest.domain.Person;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.hibernate.exception.ConstraintViolationException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class WriteBehindPersonServiceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void batchIsRetriedAfterTransientFailure() throws IOException {
+
+        InsertingPersonService personService = new InsertingPersonService();
+        WriteBehindPersonService service = writeBehind(personService);
+        try {
+            service.accept(new Person("Jack", "Bauer"));
+            service.accept(new Person("Kim", "Bauer"));
+            int pending = service.getPending();
+
+            personService.unavailable = true;
+            service.drain();
+            assertEquals(pending, service.getPending());
+            assertEquals(List.of(), personService.lastNames());
+
+            personService.unavailable = false;
+            service.drain();
+            assertEquals(0, service.getPending());
+            assertEquals(List.of("Bauer", "Bauer"), personService.lastNames());
+        } finally {
+            service.close();
+        }
+    }
+
+    @Test
+    void personViolatingConstraintIsDropped() throws IOException {
+
+        InsertingPersonService personService = new InsertingPersonService();
+        WriteBehindPersonService service = writeBehind(personService);
+        try {
+            service.accept(new Person("Jack", "Bauer"));
+            service.accept(new Person("Nina", InsertingPersonService.VIOLATING));
+            service.accept(new Person("Kim", "Bauer"));
+
+            service.drain();
+            assertEquals(0, service.getPending());
+            assertEquals(List.of("Bauer", "Bauer"), personService.lastNames());
+        } finally {
+            service.close();
+        }
+    }
+
+    private WriteBehindPersonService writeBehind(PersonService personService) throws IOException {
+
+        return new WriteBehindPersonService(personService, new ObjectMapper(),
+                directory.resolve("person.journal").toString(), 1024 * 1024, false, 10);
+    }
+
+    /**
+     * Keeps the persons inserted in memory, failing all of them while unavailable and the violating ones always.
+     */
+    static class InsertingPersonService extends PersonService {
+
+        static final String VIOLATING = "violating";
+
+        private final AtomicLong sequence = new AtomicLong();
+        private final List<Person> inserted = new ArrayList<>();
+        volatile boolean unavailable;
+
+        @Override
+        public List<Long> reserveIds(int count) {
+
+            return LongStream.range(0, count).mapToObj(i -> sequence.incrementAndGet()).collect(Collectors.toList());
+        }
+
+        @Override
+        public List<Person> insertAll(List<Person> persons) {
+
+            if (unavailable) {
+                throw new IllegalStateException("Database unavailable");
+            }
+            if (persons.stream().anyMatch(person -> VIOLATING.equals(person.getLastName()))) {
+                throw new ConstraintViolationException("Violating person", new SQLException(), "constraint");
+            }
+            inserted.addAll(persons);
+
+            return persons;
+        }
+
+        List<String> lastNames() {
+
+            return inserted.stream().map(Person::getLastName).collect(Collectors.toList());
+        }
+    }
+}